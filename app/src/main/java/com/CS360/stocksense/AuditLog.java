@@ -0,0 +1,177 @@
+package com.CS360.stocksense;
+
+import android.content.Context;
+import android.util.Log;
+import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.AuditEvent;
+import com.CS360.stocksense.Database.StoreRegistry;
+import com.CS360.stocksense.Database.User;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Records who changed what without touching the database on the caller's thread. Events go into a
+// preallocated in-memory buffer and a background thread appends them to the store's audit_log in
+// batches. A full buffer is handed to the flusher whole and replaced, so a bulk change of thousands of
+// items neither blocks nor drops events.
+public class AuditLog {
+
+    private static final String TAG = "AuditLog";
+    static final int BUFFER_SIZE = 1024; // Events per batch insert
+    private static final long FLUSH_DELAY_SECONDS = 2; // Time a partial buffer waits for more events
+
+    private static AuditLog instance;
+
+    private final Context context;
+    private final StoreRegistry registry;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private AuditEvent[] buffer = new AuditEvent[BUFFER_SIZE];
+    private String[] bufferStores = new String[BUFFER_SIZE]; // Store each event belongs to
+    private int count;
+    private boolean flushScheduled;
+
+    private AuditLog(Context context) {
+        this.context = context.getApplicationContext();
+        registry = StoreRegistry.getInstance(context);
+    }
+
+    public static synchronized AuditLog getInstance(Context context) {
+        if (instance == null) {
+            instance = new AuditLog(context);
+        }
+        return instance;
+    }
+
+    public void recordLogin(User user) {
+        record(new AuditEvent(System.currentTimeMillis(), user.getId(), AuditEvent.ACTION_LOGIN,
+                AuditEvent.NO_ITEM, 0, user.getUsername()));
+    }
+
+    public void recordQuantityChange(int itemId, int delta) {
+        if (delta != 0) {
+            record(itemEvent(AuditEvent.ACTION_QUANTITY, itemId, delta, null));
+        }
+    }
+
+    // Grid flush: item id to quantity delta
+    public void recordQuantityChanges(Map<Integer, Integer> deltas) {
+        for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+            recordQuantityChange(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public void recordItemChange(String action, int itemId, String detail) {
+        record(itemEvent(action, itemId, 0, detail));
+    }
+
+    public void recordItemChanges(String action, List<Integer> itemIds, String detail) {
+        for (int itemId : itemIds) {
+            recordItemChange(action, itemId, detail);
+        }
+    }
+
+    // Events for one item in [from, to), oldest first; includes events still in the buffer. Call off the main thread.
+    public List<AuditEvent> getItemHistory(int itemId, long from, long to) {
+        flushNow();
+        return AppDatabase.getInstance(context).auditDao().getItemHistory(itemId, from, to);
+    }
+
+    // All events in [from, to), oldest first. Call off the main thread.
+    public List<AuditEvent> getEvents(long from, long to) {
+        flushNow();
+        return AppDatabase.getInstance(context).auditDao().getEvents(from, to);
+    }
+
+    private AuditEvent itemEvent(String action, int itemId, int delta, String detail) {
+        return new AuditEvent(System.currentTimeMillis(), SessionStore.getUserId(context), action, itemId, delta, detail);
+    }
+
+    private void record(AuditEvent event) {
+        String store = registry.getCurrentStore();
+        AuditEvent[] fullBuffer = null;
+        String[] fullStores = null;
+        boolean schedule = false;
+        synchronized (lock) {
+            buffer[count] = event;
+            bufferStores[count] = store;
+            if (++count == BUFFER_SIZE) {
+                fullBuffer = buffer;
+                fullStores = bufferStores;
+                buffer = new AuditEvent[BUFFER_SIZE];
+                bufferStores = new String[BUFFER_SIZE];
+                count = 0;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                schedule = true;
+            }
+        }
+        if (fullBuffer != null) {
+            AuditEvent[] events = fullBuffer;
+            String[] stores = fullStores;
+            flusher.execute(() -> write(events, stores, BUFFER_SIZE));
+        } else if (schedule) {
+            flusher.schedule(this::flush, FLUSH_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    // Runs on the flusher thread
+    private void flush() {
+        AuditEvent[] events;
+        String[] stores;
+        int size;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (count == 0) {
+                return;
+            }
+            events = Arrays.copyOf(buffer, count);
+            stores = Arrays.copyOf(bufferStores, count);
+            size = count;
+            Arrays.fill(buffer, 0, count, null);
+            count = 0;
+        }
+        write(events, stores, size);
+    }
+
+    // Flush on the flusher thread and wait, so earlier full-buffer writes land first
+    private void flushNow() {
+        try {
+            flusher.submit(this::flush).get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Audit flush failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(AuditEvent[] events, String[] stores, int size) {
+        Map<String, List<AuditEvent>> byStore = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            List<AuditEvent> storeEvents = byStore.get(stores[i]);
+            if (storeEvents == null) {
+                storeEvents = new ArrayList<>();
+                byStore.put(stores[i], storeEvents);
+            }
+            storeEvents.add(events[i]);
+        }
+        for (Map.Entry<String, List<AuditEvent>> entry : byStore.entrySet()) {
+            AppDatabase db = registry.acquire(entry.getKey());
+            try {
+                db.auditDao().insertAll(entry.getValue()); // One transaction per store
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Dropped " + entry.getValue().size() + " audit events for " + entry.getKey(), e);
+            } finally {
+                registry.release(entry.getKey());
+            }
+        }
+    }
+}
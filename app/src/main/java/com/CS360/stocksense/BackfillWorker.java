@@ -0,0 +1,44 @@
+package com.CS360.stocksense;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.Backfill;
+import com.CS360.stocksense.Database.Backfills;
+import com.CS360.stocksense.Database.StoreRegistry;
+
+public class BackfillWorker extends Worker {
+
+    private static final String TAG = "BackfillWorker";
+
+    public BackfillWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        StoreRegistry registry = StoreRegistry.getInstance(getApplicationContext());
+
+        for (String store : registry.getStores()) { // Opening a store also runs its pending migrations
+            AppDatabase db = registry.acquire(store);
+            try {
+                for (Backfill backfill : db.backfillDao().getPending()) {
+                    long start = System.nanoTime();
+                    while (!Backfills.runChunk(db, backfill)) {
+                        if (isStopped()) {
+                            return Result.retry(); // Checkpoint is committed with each chunk
+                        }
+                    }
+                    Log.i(TAG, store + " " + backfill.getName() + ": " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                }
+            } finally {
+                registry.release(store);
+            }
+        }
+        return Result.success();
+    }
+}
@@ -0,0 +1,233 @@
+package com.CS360.stocksense;
+
+import android.os.Bundle;
+import android.widget.EditText;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.CycleCount;
+import com.CS360.stocksense.Database.CycleCountDao;
+import com.CS360.stocksense.Database.CycleCountVariance;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Cycle-count mode: counts are buffered here and appended to the staging table in batches, then the
+// whole session is reconciled against items in one join and applied in one transaction.
+public class CycleCountActivity extends AppCompatActivity {
+
+    private static final int FLUSH_SIZE = 50; // Counts staged per transaction while counting
+    private static final int REPORT_LINES = 50; // Variances listed in the confirmation dialog
+
+    private TextView status;
+    private EditText locationInput, itemIdInput, quantityInput;
+    private CycleCountDao cycleCountDao;
+    // One thread so staged batches always land before a reconcile reads them
+    private final ExecutorService dbExecutor = Executors.newSingleThreadExecutor();
+
+    private long sessionId = -1; // Open session, or -1
+    private String sessionLocation; // Location being counted, or null for the whole store
+    private int[] pendingIds = new int[FLUSH_SIZE];
+    private int[] pendingCounts = new int[FLUSH_SIZE];
+    private int pendingSize;
+    private int stagedCount; // Counts entered this session, recounts included, as getEntryCount reports them; rejected ones are taken off after each flush
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_cycle_count);
+        getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+
+        cycleCountDao = AppDatabase.getInstance(this).cycleCountDao();
+        status = findViewById(R.id.cycle_count_status);
+        locationInput = findViewById(R.id.cycle_count_location);
+        itemIdInput = findViewById(R.id.count_item_id);
+        quantityInput = findViewById(R.id.count_quantity);
+
+        findViewById(R.id.start_count_button).setOnClickListener(v -> startSession());
+        findViewById(R.id.add_count_button).setOnClickListener(v -> addCount());
+        findViewById(R.id.reconcile_button).setOnClickListener(v -> reconcile());
+
+        dbExecutor.execute(() -> {
+            CycleCount open = cycleCountDao.getOpenSession(); // Resume a count left open
+            if (open != null) {
+                int entries = cycleCountDao.getEntryCount(open.getId());
+                runOnUiThread(() -> {
+                    sessionId = open.getId();
+                    sessionLocation = open.getLocation();
+                    stagedCount = entries;
+                    locationInput.setText(open.getLocation());
+                    updateStatus();
+                });
+            }
+        });
+    }
+
+    @Override
+    public boolean onSupportNavigateUp() {
+        finish();
+        return true;
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        flush(); // Never lose counts that were typed in
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        dbExecutor.shutdown(); // Let queued batches finish
+    }
+
+    private void startSession() {
+        if (sessionId != -1) {
+            showToast("Finish the open count first");
+            return;
+        }
+        String location = locationInput.getText().toString().trim();
+        CycleCount session = new CycleCount(System.currentTimeMillis(), location.isEmpty() ? null : location,
+                SessionStore.getUserId(this));
+        dbExecutor.execute(() -> {
+            long id = cycleCountDao.insert(session);
+            runOnUiThread(() -> {
+                sessionId = id;
+                sessionLocation = session.getLocation();
+                stagedCount = 0;
+                updateStatus();
+                itemIdInput.requestFocus();
+            });
+        });
+    }
+
+    private void addCount() {
+        if (sessionId == -1) {
+            showToast("Start a count first");
+            return;
+        }
+        int itemId;
+        int quantity;
+        try {
+            itemId = Integer.parseInt(itemIdInput.getText().toString());
+            quantity = Integer.parseInt(quantityInput.getText().toString());
+        } catch (NumberFormatException e) {
+            showToast("Invalid number format");
+            return;
+        }
+
+        pendingIds[pendingSize] = itemId;
+        pendingCounts[pendingSize] = quantity;
+        if (++pendingSize == FLUSH_SIZE) {
+            flush();
+        }
+        stagedCount++;
+        updateStatus();
+        itemIdInput.setText("");
+        quantityInput.setText("");
+        itemIdInput.requestFocus(); // Ready for the next item
+    }
+
+    // Stage buffered counts in one transaction and report any the store would not take
+    private void flush() {
+        if (pendingSize == 0 || sessionId == -1) {
+            return;
+        }
+        long id = sessionId;
+        int[] itemIds = Arrays.copyOf(pendingIds, pendingSize);
+        int[] counts = Arrays.copyOf(pendingCounts, pendingSize);
+        int size = pendingSize;
+        String location = sessionLocation;
+        pendingSize = 0;
+        dbExecutor.execute(() -> {
+            List<Integer> rejected = cycleCountDao.addCounts(id, itemIds, counts, size, System.currentTimeMillis());
+            if (!rejected.isEmpty()) {
+                runOnUiThread(() -> {
+                    if (sessionId == id) {
+                        stagedCount -= rejected.size();
+                        updateStatus();
+                    }
+                    Toast.makeText(getApplicationContext(), "Not counted, no such item"
+                            + (location == null ? "" : " at " + location) + ": " + rejected, Toast.LENGTH_LONG).show();
+                });
+            }
+        });
+    }
+
+    private void reconcile() {
+        if (sessionId == -1) {
+            showToast("Start a count first");
+            return;
+        }
+        flush();
+        long id = sessionId;
+        dbExecutor.execute(() -> {
+            List<CycleCountVariance> variances = cycleCountDao.getVariances(id);
+            int uncounted = cycleCountDao.getUncountedItemCount(id);
+            runOnUiThread(() -> showVarianceReport(id, variances, uncounted));
+        });
+    }
+
+    private void showVarianceReport(long id, List<CycleCountVariance> variances, int uncounted) {
+        StringBuilder report = new StringBuilder();
+        if (variances.isEmpty()) {
+            report.append("All counted items match.");
+        }
+        for (int i = 0; i < Math.min(variances.size(), REPORT_LINES); i++) {
+            CycleCountVariance variance = variances.get(i);
+            report.append(String.format(Locale.getDefault(), "%d %s: %d -> %d (%+d)%s\n",
+                    variance.getItemId(), variance.getItemName(), variance.getExpectedQuantity(),
+                    variance.getCountedQuantity(), variance.getVariance(),
+                    variance.isBlockedByReservations() ? " - below reserved, not applied" : ""));
+        }
+        if (variances.size() > REPORT_LINES) {
+            report.append("...and ").append(variances.size() - REPORT_LINES).append(" more\n");
+        }
+        if (uncounted > 0) {
+            report.append("\n").append(uncounted).append(" items at this location were not counted and will not change.");
+        }
+
+        new AlertDialog.Builder(this)
+                .setTitle(variances.size() + " variances")
+                .setMessage(report.toString())
+                .setPositiveButton("Apply", (dialog, which) -> apply(id))
+                .setNegativeButton("Keep Counting", null)
+                .show();
+    }
+
+    private void apply(long id) {
+        dbExecutor.execute(() -> {
+            List<CycleCountVariance> applied = cycleCountDao.apply(id, System.currentTimeMillis()); // One transaction
+            if (applied != null) {
+                AuditLog auditLog = AuditLog.getInstance(this);
+                for (CycleCountVariance variance : applied) {
+                    auditLog.recordQuantityChange(variance.getItemId(), variance.getVariance());
+                }
+            }
+            runOnUiThread(() -> {
+                sessionId = -1;
+                sessionLocation = null;
+                stagedCount = 0;
+                updateStatus();
+                showToast(applied == null ? "Count was already applied" : applied.size() + " items adjusted");
+            });
+        });
+    }
+
+    private void updateStatus() {
+        if (sessionId == -1) {
+            status.setText(R.string.cycle_count_not_started);
+        } else {
+            status.setText(String.format(Locale.getDefault(), "Count #%d: %d entries", sessionId, stagedCount));
+        }
+    }
+
+    private void showToast(String message) {
+        Toast toast = Toast.makeText(CycleCountActivity.this, message, Toast.LENGTH_SHORT);
+        toast.show();
+    }
+}
@@ -0,0 +1,37 @@
+package com.CS360.stocksense;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.QuantitySeriesCodec;
+import com.CS360.stocksense.Database.StoreRegistry;
+import java.time.LocalDate;
+
+public class DailyRollupWorker extends Worker {
+
+    private static final int RETENTION_MONTHS = 13; // Enough for year-over-year charts
+
+    public DailyRollupWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        StoreRegistry registry = StoreRegistry.getInstance(getApplicationContext());
+        LocalDate today = LocalDate.now();
+
+        for (String store : registry.getStores()) { // Roll up every store in this run
+            AppDatabase db = registry.acquire(store);
+            try {
+                db.quantitySeriesDao().rollup(today); // Re-running on the same day overwrites today's entry
+                db.quantitySeriesDao().deleteBefore(QuantitySeriesCodec.monthKey(today) - RETENTION_MONTHS);
+            } finally {
+                registry.release(store);
+            }
+        }
+        return Result.success();
+    }
+}
@@ -0,0 +1,156 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// An alert rule picks items by location and/or item name pattern (items have no class column, so a
+// class is a name or SKU prefix such as 'MED-%') and alerts when quantity drops below a percentage of
+// the item's alert level. Rules are tried in priority order and the first match decides the item.
+@Entity(tableName = "alert_rules") // Define alert rules table
+public class AlertRule {
+
+    public static final int NO_QUIET_HOURS = -1;
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private String name;
+    private String location; // Only items at this location, null for any
+    private String itemPattern; // SQL LIKE pattern on itemName, null for any
+    private int percentOfAlertLevel; // Alert when quantity < alertLevel * percent / 100
+    private int cooldownMinutes; // Minimum time between alerts for one item
+    private int quietStart; // Minute of day quiet hours start, or NO_QUIET_HOURS
+    private int quietEnd; // Minute of day quiet hours end; may be before quietStart to span midnight
+    private int priority; // Higher priorities are tried first
+    private boolean overrides; // Items in scope are decided by this rule alone, even above its threshold
+    private boolean enabled;
+
+    // Constructor
+    public AlertRule(String name, String location, String itemPattern, int percentOfAlertLevel, int cooldownMinutes, int priority) {
+        this.name = name;
+        this.location = location;
+        this.itemPattern = itemPattern;
+        this.percentOfAlertLevel = percentOfAlertLevel;
+        this.cooldownMinutes = cooldownMinutes;
+        this.priority = priority;
+        quietStart = NO_QUIET_HOURS;
+        quietEnd = NO_QUIET_HOURS;
+        overrides = false;
+        enabled = true;
+    }
+
+    // Rule used when a store has none of its own: the original quantity < alertLevel check, daily
+    public static AlertRule defaultRule() {
+        return new AlertRule("Low inventory", null, null, 100, 24 * 60, Integer.MIN_VALUE);
+    }
+
+    // Whether minuteOfDay falls in this rule's quiet hours
+    public boolean isQuietAt(int minuteOfDay) {
+        if (quietStart == NO_QUIET_HOURS || quietEnd == NO_QUIET_HOURS) {
+            return false;
+        }
+        if (quietStart <= quietEnd) {
+            return minuteOfDay >= quietStart && minuteOfDay < quietEnd;
+        }
+        return minuteOfDay >= quietStart || minuteOfDay < quietEnd; // Spans midnight
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for name
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    // Getter and setter for location
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    // Getter and setter for itemPattern
+    public String getItemPattern() {
+        return itemPattern;
+    }
+
+    public void setItemPattern(String itemPattern) {
+        this.itemPattern = itemPattern;
+    }
+
+    // Getter and setter for percentOfAlertLevel
+    public int getPercentOfAlertLevel() {
+        return percentOfAlertLevel;
+    }
+
+    public void setPercentOfAlertLevel(int percentOfAlertLevel) {
+        this.percentOfAlertLevel = percentOfAlertLevel;
+    }
+
+    // Getter and setter for cooldownMinutes
+    public int getCooldownMinutes() {
+        return cooldownMinutes;
+    }
+
+    public void setCooldownMinutes(int cooldownMinutes) {
+        this.cooldownMinutes = cooldownMinutes;
+    }
+
+    // Getter and setter for quietStart
+    public int getQuietStart() {
+        return quietStart;
+    }
+
+    public void setQuietStart(int quietStart) {
+        this.quietStart = quietStart;
+    }
+
+    // Getter and setter for quietEnd
+    public int getQuietEnd() {
+        return quietEnd;
+    }
+
+    public void setQuietEnd(int quietEnd) {
+        this.quietEnd = quietEnd;
+    }
+
+    // Getter and setter for priority
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    // Getter and setter for overrides
+    public boolean isOverrides() {
+        return overrides;
+    }
+
+    public void setOverrides(boolean overrides) {
+        this.overrides = overrides;
+    }
+
+    // Getter and setter for enabled
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
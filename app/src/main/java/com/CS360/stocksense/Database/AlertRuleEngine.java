@@ -0,0 +1,149 @@
+package com.CS360.stocksense.Database;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Compiles a store's alert rules into one parameterized query, so the catalogue is scanned once per
+// run however many rules there are. Each row of the result is an item due an alert and the index of
+// the rule that matched it. The scan is an id range on the primary key, for LowInventoryWorker's chunks.
+// Alerts the query does not produce (forecasts, lots) ask isQuietFor before they are sent.
+public class AlertRuleEngine {
+
+    public static final int COLUMN_ID = 0;
+    public static final int COLUMN_NAME = 1;
+    public static final int COLUMN_RULE = 2;
+
+    private final List<AlertRule> rules; // Evaluation order; the index is what the query returns
+    private final String sql;
+    private final Object[] ruleArgs; // Bound before the id range
+    private final Object[] cutoffArgs; // Bound after the id range
+    private final boolean[] quiet; // Per rule, whether it was in quiet hours at compile time
+    private final Pattern[] itemPatterns; // Per rule, itemPattern as a regex, null for any
+
+    private AlertRuleEngine(List<AlertRule> rules, String sql, Object[] ruleArgs, Object[] cutoffArgs,
+                            boolean[] quiet, Pattern[] itemPatterns) {
+        this.rules = rules;
+        this.sql = sql;
+        this.ruleArgs = ruleArgs;
+        this.cutoffArgs = cutoffArgs;
+        this.quiet = quiet;
+        this.itemPatterns = itemPatterns;
+    }
+
+    // Compile enabled rules (highest priority first) as of now; the default rule catches everything else
+    public static AlertRuleEngine compile(List<AlertRule> enabledRules, long now) {
+        List<AlertRule> rules = new ArrayList<>(enabledRules);
+        rules.add(AlertRule.defaultRule());
+        LocalTime time = Instant.ofEpochMilli(now).atZone(ZoneId.systemDefault()).toLocalTime();
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+
+        // Inner CASE picks the first rule whose scope (and, unless it overrides, threshold) matches
+        StringBuilder pick = new StringBuilder("CASE");
+        // Outer CASE applies the picked rule's cooldown; rules in quiet hours get a cutoff nothing passes
+        StringBuilder cooldown = new StringBuilder("CASE rule");
+        List<Object> ruleArgs = new ArrayList<>();
+        List<Object> cutoffArgs = new ArrayList<>();
+        boolean[] quiet = new boolean[rules.size()];
+        Pattern[] itemPatterns = new Pattern[rules.size()];
+
+        for (int i = 0; i < rules.size(); i++) {
+            AlertRule rule = rules.get(i);
+            StringBuilder scope = new StringBuilder("1");
+            List<Object> scopeArgs = new ArrayList<>();
+            if (rule.getLocation() != null) {
+                scope.append(" AND location = ?");
+                scopeArgs.add(rule.getLocation());
+            }
+            if (rule.getItemPattern() != null) {
+                scope.append(" AND itemName LIKE ?");
+                scopeArgs.add(rule.getItemPattern());
+                itemPatterns[i] = likePattern(rule.getItemPattern());
+            }
+
+            ruleArgs.addAll(scopeArgs);
+            if (rule.isOverrides()) {
+                pick.append(" WHEN ").append(scope).append(" THEN CASE WHEN quantity * 100 < alertLevel * ? THEN ")
+                        .append(i).append(" ELSE -1 END");
+            } else {
+                pick.append(" WHEN ").append(scope).append(" AND quantity * 100 < alertLevel * ? THEN ").append(i);
+            }
+            ruleArgs.add(rule.getPercentOfAlertLevel());
+
+            cooldown.append(" WHEN ").append(i).append(" THEN ?");
+            quiet[i] = rule.isQuietAt(minuteOfDay);
+            cutoffArgs.add(quiet[i] ? -1L : now - TimeUnit.MINUTES.toMillis(rule.getCooldownMinutes()));
+        }
+        pick.append(" ELSE -1 END");
+        cooldown.append(" END");
+
+        String sql = "SELECT id, itemName, rule FROM ("
+                + "SELECT id, itemName, lastAlertTimestamp, " + pick + " AS rule FROM items"
+                + " WHERE id > ? AND id <= ? AND deletedAt = 0)"
+                + " WHERE rule >= 0 AND lastAlertTimestamp <= " + cooldown
+                + " ORDER BY id";
+        return new AlertRuleEngine(rules, sql, ruleArgs.toArray(), cutoffArgs.toArray(), quiet, itemPatterns);
+    }
+
+    // Query for items in (afterId, throughId] that are due an alert
+    public SupportSQLiteQuery chunkQuery(int afterId, int throughId) {
+        Object[] args = new Object[ruleArgs.length + 2 + cutoffArgs.length];
+        System.arraycopy(ruleArgs, 0, args, 0, ruleArgs.length);
+        args[ruleArgs.length] = afterId;
+        args[ruleArgs.length + 1] = throughId;
+        System.arraycopy(cutoffArgs, 0, args, ruleArgs.length + 2, cutoffArgs.length);
+        return new SimpleSQLiteQuery(sql, args);
+    }
+
+    // Whether alerts about an item are held now: the quiet hours of the first rule whose scope takes
+    // the item in. Forecast and lot alerts have no threshold of their own, so only scope is matched.
+    public boolean isQuietFor(String location, String itemName) {
+        for (int i = 0; i < rules.size(); i++) {
+            AlertRule rule = rules.get(i);
+            if (rule.getLocation() != null && !rule.getLocation().equals(location)) {
+                continue;
+            }
+            if (itemPatterns[i] != null && (itemName == null || !itemPatterns[i].matcher(itemName).matches())) {
+                continue;
+            }
+            return quiet[i];
+        }
+        return false; // Unreachable, the default rule takes in every item
+    }
+
+    // Rule for a COLUMN_RULE value
+    public AlertRule getRule(int index) {
+        return rules.get(index);
+    }
+
+    // SQL text, for logging and tests
+    public String getSql() {
+        return sql;
+    }
+
+    // SQLite LIKE as a regex: % is any run, _ any one character, and ASCII letters match either case
+    private static Pattern likePattern(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(pattern.substring(literalStart, i)));
+                }
+                regex.append(c == '%' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < pattern.length()) {
+            regex.append(Pattern.quote(pattern.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,33 @@
+package com.CS360.stocksense.Database;
+
+import android.database.Cursor;
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.RawQuery;
+import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
+import java.util.List;
+
+@Dao // Data Access Object for AlertRules
+public interface AlertRulesDao {
+
+    @Insert // Insert a new rule
+    long insert(AlertRule rule);
+
+    @Update // Update an existing rule
+    void update(AlertRule rule);
+
+    @Delete // Delete a rule
+    void delete(AlertRule rule);
+
+    @Query("SELECT * FROM alert_rules ORDER BY priority DESC, id") // Get all rules in evaluation order
+    List<AlertRule> getAllRules();
+
+    @Query("SELECT * FROM alert_rules WHERE enabled = 1 ORDER BY priority DESC, id") // Get the rules to compile for a run
+    List<AlertRule> getEnabledRules();
+
+    @RawQuery // Run a query built by AlertRuleEngine
+    Cursor query(SupportSQLiteQuery query);
+}
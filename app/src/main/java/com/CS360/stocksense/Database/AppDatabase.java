@@ -1,26 +1,78 @@
 package com.CS360.stocksense.Database;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 import android.content.Context;
 
-@Database(entities = {User.class, Items.class}, version = 1) // Define database with entities and version
+@Database(entities = {User.class, Items.class, Reservation.class, Lot.class, MaintenanceRecord.class,
+        QuantitySeries.class, AlertRule.class, AuditEvent.class, Backfill.class,
+        CycleCount.class, CycleCountEntry.class}, version = 15) // Define database with entities and version
 public abstract class AppDatabase extends RoomDatabase {
 
-    private static AppDatabase instance; // Singleton instance
-
     public abstract UserDao userDao(); // UserDao access
     public abstract ItemsDao itemsDao(); // ItemsDao access
+    public abstract ReservationsDao reservationsDao(); // ReservationsDao access
+    public abstract LotsDao lotsDao(); // LotsDao access
+    public abstract MaintenanceDao maintenanceDao(); // MaintenanceDao access
+    public abstract QuantitySeriesDao quantitySeriesDao(); // QuantitySeriesDao access
+    public abstract AlertRulesDao alertRulesDao(); // AlertRulesDao access
+    public abstract AuditDao auditDao(); // AuditDao access
+    public abstract BackfillDao backfillDao(); // BackfillDao access
+    public abstract CycleCountDao cycleCountDao(); // CycleCountDao access
+
+    // Get the database instance of the current store
+    public static AppDatabase getInstance(Context context) {
+        return StoreRegistry.getInstance(context).getCurrentDatabase();
+    }
+
+    // Get the database holding users, which every store shares; use its userDao only
+    public static AppDatabase getAccountsInstance(Context context) {
+        return StoreRegistry.getInstance(context).getAccountsDatabase();
+    }
 
-    // Get the database instance
-    public static synchronized AppDatabase getInstance(Context context) {
-        if (instance == null) {
-            instance = Room.databaseBuilder(context.getApplicationContext(),
-                            AppDatabase.class, "stock_sense_database")
-                    .fallbackToDestructiveMigration()
-                    .build();
+    // Build a database for one store file; instances are owned by StoreRegistry
+    static AppDatabase build(Context context, String name) {
+        return Room.databaseBuilder(context.getApplicationContext(),
+                        AppDatabase.class, name)
+                .addMigrations(Migrations.ALL) // Upgrades keep the data; heavy work is queued as backfills
+                .fallbackToDestructiveMigrationOnDowngrade()
+                .addCallback(new Callback() {
+                    @Override
+                    public void onCreate(@NonNull SupportSQLiteDatabase db) {
+                        createPartialIndexes(db); // Empty tables, so this is instant; upgrades build them in a backfill
+                    }
+
+                    @Override
+                    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+                        installTriggers(db);
+                        db.execSQL("DROP INDEX IF EXISTS index_items_live"); // Duplicated the primary key; no longer created
+                    }
+                })
+                .build();
+    }
+
+    // Triggers, which Room's annotations cannot declare. Recreated on every open in one transaction,
+    // so definitions changed in code replace the ones stored in the file.
+    static void installTriggers(SupportSQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            ConsumptionForecast.installTriggers(db);
+            // The audit log is append-only; compaction deletes whole groups but nothing edits a row
+            db.execSQL("DROP TRIGGER IF EXISTS audit_log_append_only");
+            db.execSQL("CREATE TRIGGER audit_log_append_only BEFORE UPDATE ON audit_log "
+                    + "BEGIN SELECT RAISE(ABORT, 'audit_log is append-only'); END");
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
-        return instance;
+    }
+
+    // Partial indexes, which Room's annotations cannot declare either. The purge only ever touches
+    // tombstones. It still works, just slower, until these exist.
+    static void createPartialIndexes(SupportSQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS index_items_tombstones ON items(deletedAt) WHERE deletedAt > 0");
     }
 }
@@ -0,0 +1,45 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+
+// The audit_log table only gains rows through insertAll; a trigger installed by AppDatabase rejects
+// updates, and rows are only removed by compact() once their segment is old.
+@Dao // Data Access Object for AuditEvents
+public interface AuditDao {
+
+    @Insert // Append a flushed batch of events
+    void insertAll(List<AuditEvent> events);
+
+    @Query("SELECT * FROM audit_log WHERE itemId = :itemId AND timestamp >= :from AND timestamp < :to ORDER BY timestamp, id") // History of one item
+    List<AuditEvent> getItemHistory(int itemId, long from, long to);
+
+    @Query("SELECT * FROM audit_log WHERE timestamp >= :from AND timestamp < :to ORDER BY timestamp, id") // All events in a time range
+    List<AuditEvent> getEvents(long from, long to);
+
+    // Fold each item's quantity changes by one user within a segment into a single summary row
+    @Query("INSERT INTO audit_log (segment, timestamp, userId, action, itemId, quantityDelta, detail) "
+            + "SELECT segment, MAX(timestamp), userId, 'quantity', itemId, SUM(quantityDelta), COUNT(*) || ' changes' "
+            + "FROM audit_log WHERE action = 'quantity' AND segment < :beforeSegment "
+            + "GROUP BY segment, itemId, userId HAVING COUNT(*) > 1")
+    void insertQuantitySummaries(long beforeSegment);
+
+    // The summary is the newest row of its group, so keep only that one
+    @Query("DELETE FROM audit_log WHERE action = 'quantity' AND segment < :beforeSegment AND id NOT IN ("
+            + "SELECT MAX(id) FROM audit_log WHERE action = 'quantity' AND segment < :beforeSegment "
+            + "GROUP BY segment, itemId, userId)")
+    int deleteSummarizedQuantities(long beforeSegment);
+
+    @Query("DELETE FROM audit_log WHERE segment < :beforeSegment") // Drop segments past retention
+    int deleteSegmentsBefore(long beforeSegment);
+
+    @Transaction // Compact segments older than compactBefore and drop those older than dropBefore; returns rows deleted
+    default int compact(long compactBeforeSegment, long dropBeforeSegment) {
+        int removed = deleteSegmentsBefore(dropBeforeSegment);
+        insertQuantitySummaries(compactBeforeSegment);
+        return removed + deleteSummarizedQuantities(compactBeforeSegment);
+    }
+}
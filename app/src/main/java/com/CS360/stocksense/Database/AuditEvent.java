@@ -0,0 +1,121 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import java.util.concurrent.TimeUnit;
+
+// One row of the append-only audit log. Rows are grouped into daily segments; old segments are
+// compacted and eventually dropped by AuditDao.compact, never updated in place.
+@Entity(tableName = "audit_log", // Define audit log table
+        indices = {
+                @Index({"itemId", "timestamp"}), // History of one item over a time range
+                @Index("timestamp"), // Everything in a time range
+                @Index("segment") // Segment compaction and retention
+        })
+public class AuditEvent {
+
+    public static final long SEGMENT_SPAN = TimeUnit.DAYS.toMillis(1); // One segment per day
+    public static final int NO_ITEM = -1;
+
+    public static final String ACTION_LOGIN = "login";
+    public static final String ACTION_CREATE = "create";
+    public static final String ACTION_QUANTITY = "quantity";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_DELETE = "delete";
+    public static final String ACTION_RESTORE = "restore";
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long segment; // timestamp / SEGMENT_SPAN
+    private long timestamp; // Time of the change in milliseconds
+    private int userId; // Logged-in user, or -1 when nobody is
+    private String action;
+    private int itemId; // Item changed, or NO_ITEM
+    private int quantityDelta; // Quantity change for ACTION_QUANTITY
+    private String detail; // Free-form description of the change
+
+    // Constructor
+    public AuditEvent(long timestamp, int userId, String action, int itemId, int quantityDelta, String detail) {
+        this.segment = timestamp / SEGMENT_SPAN;
+        this.timestamp = timestamp;
+        this.userId = userId;
+        this.action = action;
+        this.itemId = itemId;
+        this.quantityDelta = quantityDelta;
+        this.detail = detail;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for segment
+    public long getSegment() {
+        return segment;
+    }
+
+    public void setSegment(long segment) {
+        this.segment = segment;
+    }
+
+    // Getter and setter for timestamp
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    // Getter and setter for userId
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    // Getter and setter for action
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for quantityDelta
+    public int getQuantityDelta() {
+        return quantityDelta;
+    }
+
+    public void setQuantityDelta(int quantityDelta) {
+        this.quantityDelta = quantityDelta;
+    }
+
+    // Getter and setter for detail
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,43 @@
+package com.CS360.stocksense.Database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// A data backfill queued by a migration and run in chunks by BackfillWorker after the database is open.
+// The row is deleted once the backfill finishes.
+@Entity(tableName = "backfills") // Define backfills table
+public class Backfill {
+
+    public static final int START = Integer.MIN_VALUE; // Below every item id; ids are user-entered and may be 0 or negative
+
+    @PrimaryKey
+    @NonNull
+    private String name; // One of the Backfills constants
+    private int lastId; // Last item id processed, the resume point
+
+    // Constructor
+    public Backfill(@NonNull String name, int lastId) {
+        this.name = name;
+        this.lastId = lastId;
+    }
+
+    // Getter and setter for name
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public void setName(@NonNull String name) {
+        this.name = name;
+    }
+
+    // Getter and setter for lastId
+    public int getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(int lastId) {
+        this.lastId = lastId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao // Data Access Object for Backfills
+public interface BackfillDao {
+
+    @Query("SELECT * FROM backfills ORDER BY name") // Get backfills still to run
+    List<Backfill> getPending();
+
+    @Query("UPDATE backfills SET lastId = :lastId WHERE name = :name") // Save the resume point
+    void updateCheckpoint(String name, int lastId);
+
+    @Query("DELETE FROM backfills WHERE name = :name") // Mark a backfill finished
+    void delete(String name);
+
+    // Set a starting rate unless the triggers have already set one since the upgrade
+    @Query("UPDATE items SET consumptionRate = :rate, lastConsumptionAt = :lastConsumptionAt, "
+            + "stockoutAt = :now + CAST(MAX(quantity, 0) / :rate * :dayMs AS INTEGER) "
+            + "WHERE id = :itemId AND consumptionRate = 0 AND deletedAt = 0")
+    void seedConsumption(int itemId, double rate, long lastConsumptionAt, long now, long dayMs);
+}
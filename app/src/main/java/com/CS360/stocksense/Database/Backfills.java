@@ -0,0 +1,106 @@
+package com.CS360.stocksense.Database;
+
+import android.util.Log;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Data work queued by Migrations. Each call runs one chunk in its own transaction together with the
+// checkpoint, so a backfill interrupted at any point resumes after the last committed chunk.
+public final class Backfills {
+
+    public static final String PARTIAL_INDEXES = "partial_indexes";
+    public static final String CONSUMPTION_RATES = "consumption_rates";
+
+    private static final String TAG = "Backfills";
+    private static final int CHUNK_SIZE = 2000; // Items per transaction
+    private static final int HISTORY_DAYS = 30; // Rollup history used to seed consumption rates
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private Backfills() {
+    }
+
+    // Run the next chunk of backfill; true once it has finished and been removed from the queue
+    public static boolean runChunk(AppDatabase db, Backfill backfill) {
+        boolean[] finished = new boolean[1];
+        db.runInTransaction(() -> {
+            Integer lastId; // Null once the backfill is done
+            switch (backfill.getName()) {
+                case PARTIAL_INDEXES:
+                    AppDatabase.createPartialIndexes(db.getOpenHelper().getWritableDatabase());
+                    lastId = null;
+                    break;
+                case CONSUMPTION_RATES:
+                    lastId = seedConsumptionRates(db, backfill.getLastId());
+                    break;
+                default:
+                    Log.w(TAG, "Dropping unknown backfill " + backfill.getName());
+                    lastId = null;
+            }
+            if (lastId == null) {
+                db.backfillDao().delete(backfill.getName());
+                finished[0] = true;
+            } else {
+                db.backfillDao().updateCheckpoint(backfill.getName(), lastId);
+                backfill.setLastId(lastId);
+            }
+        });
+        return finished[0];
+    }
+
+    // Items upgraded from before the forecast triggers start with no rate. Estimate one from the drops in
+    // their recent daily rollups so forecasts work straight away. Returns the new checkpoint, or null when done.
+    private static Integer seedConsumptionRates(AppDatabase db, int lastId) {
+        Integer chunkEnd = db.itemsDao().getChunkEnd(lastId, CHUNK_SIZE);
+        if (chunkEnd == null) {
+            return null;
+        }
+
+        LocalDate today = LocalDate.now();
+        long fromEpochDay = today.minusDays(HISTORY_DAYS).toEpochDay();
+        long now = System.currentTimeMillis();
+        List<QuantitySeries> chunkSeries = db.quantitySeriesDao().getSeriesForItems(lastId, chunkEnd,
+                QuantitySeriesCodec.monthKey(today.minusDays(HISTORY_DAYS)));
+
+        int[] days = new int[QuantitySeriesCodec.MAX_ENTRIES];
+        int[] quantities = new int[QuantitySeriesCodec.MAX_ENTRIES];
+        int index = 0;
+        while (index < chunkSeries.size()) {
+            int itemId = chunkSeries.get(index).getItemId();
+            long used = 0;
+            long firstDay = -1;
+            long lastDecreaseDay = -1;
+            int previous = QuantitySeriesCodec.NO_DATA;
+
+            // Rows are ordered by (itemId, month), so one item's history is a contiguous run
+            for (; index < chunkSeries.size() && chunkSeries.get(index).getItemId() == itemId; index++) {
+                QuantitySeries series = chunkSeries.get(index);
+                long monthStart = LocalDate.of(series.getMonth() / 12, series.getMonth() % 12 + 1, 1).toEpochDay() - 1;
+                int count = QuantitySeriesCodec.decode(series.getData(), days, quantities);
+                for (int i = 0; i < count; i++) {
+                    long epochDay = monthStart + days[i];
+                    if (epochDay < fromEpochDay) {
+                        continue;
+                    }
+                    if (firstDay < 0) {
+                        firstDay = epochDay;
+                    }
+                    if (previous != QuantitySeriesCodec.NO_DATA && quantities[i] < previous) {
+                        used += previous - quantities[i];
+                        lastDecreaseDay = epochDay;
+                    }
+                    previous = quantities[i];
+                }
+            }
+
+            if (used > 0) {
+                double rate = used / (double) Math.max(1, today.toEpochDay() - firstDay);
+                long lastConsumptionAt = LocalDate.ofEpochDay(lastDecreaseDay)
+                        .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                db.backfillDao().seedConsumption(itemId, rate, lastConsumptionAt, now, DAY_MS);
+            }
+        }
+        return chunkEnd;
+    }
+}
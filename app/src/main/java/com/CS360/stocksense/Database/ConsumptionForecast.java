@@ -0,0 +1,69 @@
+package com.CS360.stocksense.Database;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import java.util.concurrent.TimeUnit;
+
+// Keeps items.consumptionRate as a time-weighted moving average of units used per day, and
+// items.stockoutAt as the predicted time the item runs out, so forecasts are an indexed range query.
+//
+// On each decrease of d units, dt days after the previous one, the rate becomes
+//     rate' = (rate * TAU + d) / (TAU + dt)
+// which is an exponentially weighted average of d / dt with weight dt / (dt + TAU); older
+// consumption fades out over roughly TAU days. Triggers do the update in the same statement as the
+// quantity write, so every write path (grid, details, lots, reservations) is covered in O(1).
+// Cycle-count adjustments are not use: they move the stock-out date like a restock and keep the rate.
+public final class ConsumptionForecast {
+
+    public static final double TAU_DAYS = 7.0; // Smoothing window in days
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String NOW_MS = "CAST((julianday('now') - 2440587.5) * " + DAY_MS + " AS INTEGER)";
+    private static final String ELAPSED_DAYS =
+            "(CASE WHEN OLD.lastConsumptionAt = 0 THEN 0 ELSE (" + NOW_MS + " - OLD.lastConsumptionAt) / " + DAY_MS + ".0 END)";
+    // True inside CycleCountDao.apply, the only time a session is APPLYING; cycle_counts holds one row per session
+    private static final String COUNT_ADJUSTMENT =
+            "EXISTS (SELECT 1 FROM cycle_counts WHERE appliedAt = " + CycleCountDao.APPLYING + ")";
+    private static final String NEW_RATE =
+            "((OLD.consumptionRate * " + TAU_DAYS + " + (OLD.quantity - NEW.quantity)) / (" + TAU_DAYS + " + " + ELAPSED_DAYS + "))";
+
+    private ConsumptionForecast() {
+    }
+
+    // Replace the triggers with the current definitions; run from AppDatabase's open callback, so a
+    // change to the formula reaches existing databases on their next open
+    public static void installTriggers(SupportSQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS items_consumption");
+        db.execSQL("CREATE TRIGGER items_consumption AFTER UPDATE OF quantity ON items "
+                + "WHEN NEW.quantity < OLD.quantity AND NOT " + COUNT_ADJUSTMENT + " BEGIN "
+                + "UPDATE items SET consumptionRate = " + NEW_RATE + ", "
+                + "lastConsumptionAt = " + NOW_MS + ", "
+                + "stockoutAt = " + NOW_MS + " + CAST(MAX(NEW.quantity, 0) / " + NEW_RATE + " * " + DAY_MS + " AS INTEGER) "
+                + "WHERE id = NEW.id; END");
+
+        // Restocks and count adjustments leave the rate alone but move the stock-out date
+        db.execSQL("DROP TRIGGER IF EXISTS items_restock");
+        db.execSQL("CREATE TRIGGER items_restock AFTER UPDATE OF quantity ON items "
+                + "WHEN NEW.quantity > OLD.quantity OR (NEW.quantity < OLD.quantity AND " + COUNT_ADJUSTMENT + ") BEGIN "
+                + "UPDATE items SET stockoutAt = CASE WHEN OLD.consumptionRate > 0 "
+                + "THEN " + NOW_MS + " + CAST(MAX(NEW.quantity, 0) / OLD.consumptionRate * " + DAY_MS + " AS INTEGER) "
+                + "ELSE NULL END "
+                + "WHERE id = NEW.id; END");
+    }
+
+    // Days until the item runs out at its current rate, decayed for time since the last use
+    public static double daysUntilStockOut(Items item, long now) {
+        if (item.getQuantity() <= 0) {
+            return 0;
+        }
+        double rate = item.getConsumptionRate();
+        if (rate <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (item.getLastConsumptionAt() > 0) {
+            // Same update as a zero-unit decrease now, so idle items forecast further out
+            double idleDays = Math.max(0, now - item.getLastConsumptionAt()) / (double) DAY_MS;
+            rate = rate * TAU_DAYS / (TAU_DAYS + idleDays);
+        }
+        return item.getQuantity() / rate;
+    }
+}
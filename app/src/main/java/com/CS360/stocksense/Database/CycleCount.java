@@ -0,0 +1,71 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// One physical count session. Counted quantities are staged in cycle_count_entries and only reach
+// items when the session is applied.
+@Entity(tableName = "cycle_counts") // Define cycle count sessions table
+public class CycleCount {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long startedAt;
+    private String location; // Location being counted, null for the whole store
+    private int userId; // User who started the count
+    private long appliedAt; // 0 while open, time the adjustments were applied
+
+    // Constructor
+    public CycleCount(long startedAt, String location, int userId) {
+        this.startedAt = startedAt;
+        this.location = location;
+        this.userId = userId;
+        appliedAt = 0;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for startedAt
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    // Getter and setter for location
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    // Getter and setter for userId
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    // Getter and setter for appliedAt
+    public long getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(long appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
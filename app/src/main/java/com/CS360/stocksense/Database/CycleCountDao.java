@@ -0,0 +1,98 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.ArrayList;
+import java.util.List;
+
+// Adjustments are applied as deltas (counted - expected at count time), so sales and receipts made
+// while the count was running are kept rather than overwritten by the counted figure. They are
+// shrinkage or found stock rather than use, so they do not feed the consumption rate.
+@Dao // Data Access Object for CycleCounts
+public interface CycleCountDao {
+
+    long APPLYING = -1; // appliedAt of a session while apply() writes it, seen by ConsumptionForecast's triggers
+
+    // Latest staging row of each item in a session
+    String LATEST_ENTRIES = "SELECT MAX(id) FROM cycle_count_entries WHERE sessionId = :sessionId GROUP BY itemId";
+    // Adjustment from an item's latest staging row, correlated on items.id
+    String LATEST_DELTA = "(SELECT e.countedQuantity - e.expectedQuantity FROM cycle_count_entries e "
+            + "WHERE e.sessionId = :sessionId AND e.itemId = items.id ORDER BY e.id DESC LIMIT 1)";
+
+    @Insert // Start a new count session
+    long insert(CycleCount session);
+
+    @Query("SELECT * FROM cycle_counts WHERE appliedAt = 0 ORDER BY id DESC LIMIT 1") // Session left open, if any
+    CycleCount getOpenSession();
+
+    @Query("SELECT * FROM cycle_counts WHERE id = :sessionId") // Get session by id
+    CycleCount getSession(long sessionId);
+
+    // Stage one count, capturing the quantity on record in the same statement. Unknown and deleted items,
+    // and items outside the session's location, insert nothing; the row id is then -1.
+    @Query("INSERT INTO cycle_count_entries (sessionId, itemId, countedQuantity, expectedQuantity, countedAt) "
+            + "SELECT :sessionId, id, :countedQuantity, quantity, :countedAt FROM items WHERE id = :itemId AND deletedAt = 0 "
+            + "AND COALESCE((SELECT location FROM cycle_counts WHERE id = :sessionId), location) IS location") // Any location for whole-store sessions
+    long addCount(long sessionId, int itemId, int countedQuantity, long countedAt);
+
+    @Transaction // Stage a batch of counts (itemIds[i] counted as counts[i]) in one transaction; returns the item ids not staged
+    default List<Integer> addCounts(long sessionId, int[] itemIds, int[] counts, int size, long countedAt) {
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (addCount(sessionId, itemIds[i], counts[i], countedAt) < 0) {
+                rejected.add(itemIds[i]);
+            }
+        }
+        return rejected;
+    }
+
+    @Query("SELECT COUNT(*) FROM cycle_count_entries WHERE sessionId = :sessionId") // Counts staged so far, recounts included
+    int getEntryCount(long sessionId);
+
+    // Set-based reconcile: join the latest entry per item against items, keeping only differences
+    @Query("SELECT items.id AS itemId, items.itemName AS itemName, items.location AS location, "
+            + "e.expectedQuantity AS expectedQuantity, e.countedQuantity AS countedQuantity, "
+            + "(items.quantity + e.countedQuantity - e.expectedQuantity < items.reserved) AS blockedByReservations "
+            + "FROM cycle_count_entries e JOIN items ON items.id = e.itemId "
+            + "WHERE e.id IN (" + LATEST_ENTRIES + ") AND e.countedQuantity != e.expectedQuantity AND items.deletedAt = 0 "
+            + "ORDER BY ABS(e.countedQuantity - e.expectedQuantity) DESC, items.id")
+    List<CycleCountVariance> getVariances(long sessionId);
+
+    // Items at the session's location that nobody counted; 0 for whole-store sessions
+    @Query("SELECT COUNT(*) FROM items WHERE deletedAt = 0 "
+            + "AND location = (SELECT location FROM cycle_counts WHERE id = :sessionId) "
+            + "AND id NOT IN (SELECT itemId FROM cycle_count_entries WHERE sessionId = :sessionId)")
+    int getUncountedItemCount(long sessionId);
+
+    // One UPDATE for every item with a variance; the (sessionId, itemId) index serves the correlated lookup.
+    // Items whose adjustment would leave fewer units than are reserved are left alone.
+    @Query("UPDATE items SET quantity = quantity + " + LATEST_DELTA + ", version = version + 1 "
+            + "WHERE deletedAt = 0 AND id IN (SELECT itemId FROM cycle_count_entries "
+            + "WHERE id IN (" + LATEST_ENTRIES + ") AND countedQuantity != expectedQuantity) "
+            + "AND quantity + " + LATEST_DELTA + " >= reserved")
+    int applyVariances(long sessionId);
+
+    @Query("UPDATE cycle_counts SET appliedAt = :appliedAt WHERE id = :sessionId AND appliedAt = 0") // Close an open session
+    int markApplied(long sessionId, long appliedAt);
+
+    @Query("UPDATE cycle_counts SET appliedAt = :appliedAt WHERE id = :sessionId") // Stamp a session once its adjustments are written
+    void setAppliedAt(long sessionId, long appliedAt);
+
+    @Transaction // Apply a session in one transaction; returns the variances applied, or null if it was already applied
+    default List<CycleCountVariance> apply(long sessionId, long appliedAt) {
+        if (markApplied(sessionId, APPLYING) == 0) {
+            return null;
+        }
+        List<CycleCountVariance> applied = new ArrayList<>();
+        for (CycleCountVariance variance : getVariances(sessionId)) {
+            if (!variance.isBlockedByReservations()) { // Same check as applyVariances, inside the same transaction
+                applied.add(variance);
+            }
+        }
+        applyVariances(sessionId); // Consumption triggers see the APPLYING session and leave the rate alone
+        setAppliedAt(sessionId, appliedAt);
+        return applied;
+    }
+}
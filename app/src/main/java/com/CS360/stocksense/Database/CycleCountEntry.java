@@ -0,0 +1,87 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Staging row for one counted item. Rows are only ever appended; a recount of the same item adds a
+// new row and the latest one wins at reconcile time.
+@Entity(tableName = "cycle_count_entries", // Define cycle count staging table
+        foreignKeys = @ForeignKey(entity = CycleCount.class, parentColumns = "id", childColumns = "sessionId",
+                onDelete = ForeignKey.CASCADE),
+        indices = @Index({"sessionId", "itemId"})) // Latest entry per item within a session
+public class CycleCountEntry {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long sessionId;
+    private int itemId;
+    private int countedQuantity; // Units found on the shelf
+    private int expectedQuantity; // items.quantity when the count was entered
+    private long countedAt;
+
+    // Constructor
+    public CycleCountEntry(long sessionId, int itemId, int countedQuantity, int expectedQuantity, long countedAt) {
+        this.sessionId = sessionId;
+        this.itemId = itemId;
+        this.countedQuantity = countedQuantity;
+        this.expectedQuantity = expectedQuantity;
+        this.countedAt = countedAt;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for sessionId
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(long sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for countedQuantity
+    public int getCountedQuantity() {
+        return countedQuantity;
+    }
+
+    public void setCountedQuantity(int countedQuantity) {
+        this.countedQuantity = countedQuantity;
+    }
+
+    // Getter and setter for expectedQuantity
+    public int getExpectedQuantity() {
+        return expectedQuantity;
+    }
+
+    public void setExpectedQuantity(int expectedQuantity) {
+        this.expectedQuantity = expectedQuantity;
+    }
+
+    // Getter and setter for countedAt
+    public long getCountedAt() {
+        return countedAt;
+    }
+
+    public void setCountedAt(long countedAt) {
+        this.countedAt = countedAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.CS360.stocksense.Database;
+
+// One line of a cycle count variance report, produced by CycleCountDao's reconcile join
+public class CycleCountVariance {
+
+    private int itemId;
+    private String itemName;
+    private String location;
+    private int expectedQuantity; // Quantity on record when the item was counted
+    private int countedQuantity;
+    private boolean blockedByReservations; // Applying would leave fewer units than are reserved, so it is skipped
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for itemName
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    // Getter and setter for location
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    // Getter and setter for expectedQuantity
+    public int getExpectedQuantity() {
+        return expectedQuantity;
+    }
+
+    public void setExpectedQuantity(int expectedQuantity) {
+        this.expectedQuantity = expectedQuantity;
+    }
+
+    // Getter and setter for countedQuantity
+    public int getCountedQuantity() {
+        return countedQuantity;
+    }
+
+    public void setCountedQuantity(int countedQuantity) {
+        this.countedQuantity = countedQuantity;
+    }
+
+    // Getter and setter for blockedByReservations
+    public boolean isBlockedByReservations() {
+        return blockedByReservations;
+    }
+
+    public void setBlockedByReservations(boolean blockedByReservations) {
+        this.blockedByReservations = blockedByReservations;
+    }
+
+    // Units to add to the item; negative for shrinkage
+    public int getVariance() {
+        return countedQuantity - expectedQuantity;
+    }
+}
@@ -0,0 +1,37 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Embedded;
+
+// Result row of LotsDao.getExpiringLots: a lot together with its item's name and location
+public class ExpiringLot {
+
+    @Embedded
+    private Lot lot;
+
+    private String itemName;
+    private String itemLocation;
+
+    public Lot getLot() {
+        return lot;
+    }
+
+    public void setLot(Lot lot) {
+        this.lot = lot;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public String getItemLocation() {
+        return itemLocation;
+    }
+
+    public void setItemLocation(String itemLocation) {
+        this.itemLocation = itemLocation;
+    }
+}
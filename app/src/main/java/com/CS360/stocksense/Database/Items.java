@@ -1,9 +1,10 @@
 package com.CS360.stocksense.Database;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "items") // Define items table
+@Entity(tableName = "items", indices = @Index("stockoutAt")) // Define items table
 public class Items {
 
     @PrimaryKey
@@ -11,9 +12,17 @@ public class Items {
 
     private String itemName;
     private int quantity;
+    private int reserved; // Units held by open reservations, maintained by ReservationsDao
     private String location;
     private int alertLevel;
     private long lastAlertTimestamp;
+    private long lastForecastAlertAt; // Time of the last stock-out forecast alert, kept apart from low-stock alerts
+    private int version; // Incremented on every write, checked by the targeted update methods
+    private String thumbnailUri; // Content or file URI of the item photo, null if none
+    private double consumptionRate; // Units used per day, maintained by ConsumptionForecast triggers
+    private long lastConsumptionAt; // Time of the last quantity decrease
+    private Long stockoutAt; // Predicted stock-out time, null if the item is not being consumed
+    private long deletedAt; // 0 while live, deletion time once soft-deleted
 
     // Constructor
     public Items(int id, String itemName, int quantity, String location, int alertLevel) {
@@ -51,6 +60,20 @@ public class Items {
     public void setQuantity(int quantity) {
         this.quantity = quantity;
     }
+    // Getter and setter for reserved
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    // Units on hand that are not held for an order
+    public int getAvailableQuantity() {
+        return quantity - reserved;
+    }
+
     public void updateQuantity(int quantity){
         this.quantity = this.quantity + quantity;
     }
@@ -81,6 +104,74 @@ public class Items {
         this.lastAlertTimestamp = lastAlertTimestamp;
     }
 
+    // Getter and setter for lastForecastAlertAt
+    public long getLastForecastAlertAt() {
+        return lastForecastAlertAt;
+    }
+
+    public void setLastForecastAlertAt(long lastForecastAlertAt) {
+        this.lastForecastAlertAt = lastForecastAlertAt;
+    }
+
+    // Getter and setter for version
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    // Getter and setter for thumbnailUri
+    public String getThumbnailUri() {
+        return thumbnailUri;
+    }
+
+    public void setThumbnailUri(String thumbnailUri) {
+        this.thumbnailUri = thumbnailUri;
+    }
+
+    // Getter and setter for consumptionRate
+    public double getConsumptionRate() {
+        return consumptionRate;
+    }
+
+    public void setConsumptionRate(double consumptionRate) {
+        this.consumptionRate = consumptionRate;
+    }
+
+    // Getter and setter for lastConsumptionAt
+    public long getLastConsumptionAt() {
+        return lastConsumptionAt;
+    }
+
+    public void setLastConsumptionAt(long lastConsumptionAt) {
+        this.lastConsumptionAt = lastConsumptionAt;
+    }
+
+    // Getter and setter for stockoutAt
+    public Long getStockoutAt() {
+        return stockoutAt;
+    }
+
+    public void setStockoutAt(Long stockoutAt) {
+        this.stockoutAt = stockoutAt;
+    }
+
+    // Getter and setter for deletedAt
+    public long getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(long deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    // Days until stock-out at the current consumption rate
+    public double getDaysUntilStockOut() {
+        return ConsumptionForecast.daysUntilStockOut(this, System.currentTimeMillis());
+    }
+
     // Check if inventory is low
     public boolean isLowInventory() {
         return this.quantity < this.alertLevel;
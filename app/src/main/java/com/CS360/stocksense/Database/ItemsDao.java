@@ -1,33 +1,194 @@
 package com.CS360.stocksense.Database;
 
+import android.database.Cursor;
 import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 import androidx.room.Delete;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Dao // Data Access Object for Items
 public interface ItemsDao {
 
+    int BULK_CHUNK_SIZE = 500; // Keep IN (...) lists under SQLite's bound-variable limit
+    int PURGE_BATCH_SIZE = 5000; // Tombstones hard-deleted per purge transaction
+
+    // Results of updateChangedFields
+    int SAVED = 0;
+    int CHANGED_ELSEWHERE = 1; // Another write moved the version on since the item was read
+    int BELOW_RESERVED = 2; // The new quantity is below the units now held by reservations
+
+    // Deleted items stay in the table as tombstones (deletedAt > 0) until purgeDeleted() runs.
+    // Every read filters on deletedAt = 0; reads by id go through the primary key.
+
     @Insert // Insert a new item
     void insert(Items item);
 
+    @Query("DELETE FROM items WHERE id = :id AND deletedAt > 0") // Hard-delete the tombstone holding an id, if any
+    void purgeTombstone(int id);
+
+    @Transaction // Insert a new item, taking over the id of a deleted one; throws SQLiteConstraintException if a live item has it
+    default void insertReplacingTombstone(Items item) {
+        purgeTombstone(item.getId());
+        insert(item);
+    }
+
     @Update // Update an existing item
     void update(Items item);
 
-    @Delete // Delete an item
+    @Delete // Permanently delete an item
     void delete(Items item);
 
-    @Query("SELECT * FROM items") // Get all items
+    @Query("SELECT * FROM items WHERE deletedAt = 0") // Get all items
     List<Items> getAllItems();
 
-    @Query("SELECT * FROM items WHERE id = :id") // Get item by id
+    @Query("SELECT EXISTS(SELECT 1 FROM items)") // Check for any item row, deleted ones included
+    boolean hasAnyItems();
+
+    @Query("SELECT * FROM items WHERE deletedAt = 0") // Stream all items for building an ItemsSnapshot
+    Cursor getItemsCursor();
+
+    @Query("SELECT * FROM items WHERE id = :id AND deletedAt = 0") // Get item by id
     Items getItemById(int id);
 
-    @Query("SELECT (quantity < alertLevel) FROM items WHERE id = :itemId") // Check if item has low inventory
+    @Query("SELECT * FROM items WHERE stockoutAt <= :horizon AND lastForecastAlertAt < :alertedBefore AND quantity > 0 AND deletedAt = 0 ORDER BY stockoutAt") // Items forecast to run out by horizon, range scan on stockoutAt; empty items are low-stock alerts instead
+    List<Items> getItemsRunningOutBy(long horizon, long alertedBefore);
+
+    @Query("UPDATE items SET stockoutAt = :stockoutAt WHERE id = :id") // Move a forecast that idle time has pushed back; not a quantity write, so no trigger fires
+    void updateStockoutAt(int id, Long stockoutAt);
+
+    @Query("SELECT MAX(id) FROM (SELECT id FROM items WHERE id > :afterId ORDER BY id LIMIT :limit)") // Last id of the next id-ordered chunk, null when none are left
+    Integer getChunkEnd(int afterId, int limit);
+
+    @Query("SELECT (quantity < alertLevel) FROM items WHERE id = :itemId AND deletedAt = 0") // Check if item has low inventory
     boolean isLowInventory(int itemId);
 
-    @Query("UPDATE items SET alertLevel = :alertLevel WHERE id = :id") // Update alert level of an item
+    @Query("UPDATE items SET alertLevel = :alertLevel, version = version + 1 WHERE id = :id") // Update alert level of an item
     void updateAlertLevel(int id, int alertLevel);
+
+    // Targeted updates below only write when the row is still at expectedVersion.
+    // They return the number of rows changed; 0 means the item was changed or deleted elsewhere.
+    // Quantity writes also refuse to drop below the units held by reservations.
+
+    @Query("UPDATE items SET quantity = :quantity, version = version + 1 WHERE id = :id AND version = :expectedVersion AND :quantity >= reserved") // Update quantity of an item
+    int updateQuantity(int id, int quantity, int expectedVersion);
+
+    @Query("UPDATE items SET location = :location, version = version + 1 WHERE id = :id AND version = :expectedVersion") // Update location of an item
+    int updateLocation(int id, String location, int expectedVersion);
+
+    @Query("UPDATE items SET alertLevel = :alertLevel, version = version + 1 WHERE id = :id AND version = :expectedVersion") // Update alert level of an item
+    int updateAlertLevel(int id, int alertLevel, int expectedVersion);
+
+    @Query("UPDATE items SET quantity = quantity + :delta, version = version + 1 WHERE id = :id AND quantity + :delta >= reserved AND deletedAt = 0") // Apply a relative quantity change to a live item unless it would eat into reserved units
+    int adjustQuantity(int id, int delta);
+
+    @Query("UPDATE items SET thumbnailUri = :thumbnailUri, version = version + 1 WHERE id = :id") // Set or clear the item photo
+    void updateThumbnailUri(int id, String thumbnailUri);
+
+    @Query("UPDATE items SET thumbnailUri = :thumbnailUri, version = version + 1 WHERE id = :id AND version = :expectedVersion") // Set the item photo if nothing else changed
+    int updateThumbnailUri(int id, String thumbnailUri, int expectedVersion);
+
+    @Query("UPDATE items SET lastAlertTimestamp = :timestamp WHERE id = :id") // Record when an alert was sent
+    void updateLastAlertTimestamp(int id, long timestamp);
+
+    @Query("UPDATE items SET lastForecastAlertAt = :timestamp WHERE id = :id") // Record when a stock-out forecast was sent
+    void updateLastForecastAlertAt(int id, long timestamp);
+
+    @Query("UPDATE items SET lastAlertTimestamp = :timestamp WHERE id IN (:ids)") // Record alerts for a chunk of items
+    void updateLastAlertTimestampByIds(List<Integer> ids, long timestamp);
+
+    @Transaction // Record alerts for many items in one transaction
+    default void updateLastAlertTimestamps(List<Integer> ids, long timestamp) {
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            updateLastAlertTimestampByIds(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())), timestamp);
+        }
+    }
+
+    @Transaction // Write only the changed columns of an item; returns SAVED, CHANGED_ELSEWHERE or BELOW_RESERVED
+    default int updateChangedFields(Items original, int quantity, String location, int alertLevel) {
+        // After the first successful write this transaction holds the write lock, so only that check can fail
+        int version = original.getVersion();
+        if (quantity != original.getQuantity() && updateQuantity(original.getId(), quantity, version++) == 0) {
+            // Reservations do not move the version, so an unchanged version means the reserved guard refused it
+            Items latest = getItemById(original.getId());
+            return latest != null && latest.getVersion() == original.getVersion() ? BELOW_RESERVED : CHANGED_ELSEWHERE;
+        }
+        if (!location.equals(original.getLocation()) && updateLocation(original.getId(), location, version++) == 0) {
+            return CHANGED_ELSEWHERE;
+        }
+        if (alertLevel != original.getAlertLevel() && updateAlertLevel(original.getId(), alertLevel, version++) == 0) {
+            return CHANGED_ELSEWHERE;
+        }
+        return SAVED;
+    }
+
+    @Transaction // Apply pending quantity changes (item id to delta) from the grid in one transaction; returns the ones applied
+    default Map<Integer, Integer> adjustQuantities(Map<Integer, Integer> deltas) {
+        Map<Integer, Integer> applied = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+            if (entry.getValue() != 0 && adjustQuantity(entry.getKey(), entry.getValue()) > 0) {
+                applied.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return applied;
+    }
+
+    @Query("UPDATE items SET deletedAt = :deletedAt, version = version + 1 WHERE id IN (:ids) AND deletedAt = 0") // Tombstone a chunk of items
+    void softDeleteByIds(List<Integer> ids, long deletedAt);
+
+    @Query("UPDATE items SET deletedAt = 0, version = version + 1 WHERE id IN (:ids) AND deletedAt > 0") // Bring back a chunk of tombstoned items
+    void restoreByIds(List<Integer> ids);
+
+    @Query("DELETE FROM items WHERE id IN (SELECT id FROM items WHERE deletedAt > 0 AND deletedAt < :deletedBefore LIMIT :limit)") // Hard-delete one batch of old tombstones
+    int purgeBatch(long deletedBefore, int limit);
+
+    @Query("UPDATE items SET location = :location, version = version + 1 WHERE id IN (:ids)") // Update location of a chunk of items
+    void updateLocationByIds(List<Integer> ids, String location);
+
+    @Query("UPDATE items SET alertLevel = :alertLevel, version = version + 1 WHERE id IN (:ids)") // Update alert level of a chunk of items
+    void updateAlertLevelByIds(List<Integer> ids, int alertLevel);
+
+    @Transaction // Tombstone all selected items in one transaction
+    default void softDeleteItems(List<Integer> ids, long deletedAt) {
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            softDeleteByIds(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())), deletedAt);
+        }
+    }
+
+    @Transaction // Undo a soft delete in one transaction
+    default void restoreItems(List<Integer> ids) {
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            restoreByIds(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    // Hard-delete tombstones older than deletedBefore, one transaction per batch so other writers
+    // get in between; returns the number of items removed
+    default int purgeDeleted(long deletedBefore) {
+        int total = 0;
+        int purged;
+        do {
+            purged = purgeBatch(deletedBefore, PURGE_BATCH_SIZE);
+            total += purged;
+        } while (purged == PURGE_BATCH_SIZE);
+        return total;
+    }
+
+    @Transaction // Move all selected items to a new location in one transaction
+    default void updateLocations(List<Integer> ids, String location) {
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            updateLocationByIds(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())), location);
+        }
+    }
+
+    @Transaction // Set the alert level of all selected items in one transaction
+    default void updateAlertLevels(List<Integer> ids, int alertLevel) {
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            updateAlertLevelByIds(ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size())), alertLevel);
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package com.CS360.stocksense.Database;
+
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.room.InvalidationTracker;
+import androidx.tracing.Trace;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Shares one ItemsSnapshot of the current store between all screens. The snapshot is reloaded only after Room reports
+// a write to the items table, and only while some screen is observing it.
+public class ItemsRepository {
+
+    private static ItemsRepository instance; // Singleton instance
+
+    private volatile AppDatabase db; // Database of the current store
+    private final InvalidationTracker.Observer observer = new InvalidationTracker.Observer("items") {
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            invalidate();
+        }
+    };
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(); // Serializes snapshot loads
+    private final SnapshotLiveData items = new SnapshotLiveData();
+    private final AtomicBoolean loadQueued = new AtomicBoolean();
+    private final AtomicInteger generation = new AtomicInteger(); // Bumped on every invalidation
+    private volatile ItemsSnapshot current;
+    private volatile int currentGeneration = -1; // Generation the current snapshot was loaded at
+
+    // Get the repository instance
+    public static synchronized ItemsRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ItemsRepository(AppDatabase.getInstance(context));
+        }
+        return instance;
+    }
+
+    private ItemsRepository(AppDatabase db) {
+        this.db = db;
+        db.getInvalidationTracker().addObserver(observer);
+    }
+
+    // Follow a store switch; called by StoreRegistry
+    synchronized void attach(AppDatabase newDb) {
+        if (newDb == db) {
+            return;
+        }
+        db.getInvalidationTracker().removeObserver(observer);
+        db = newDb;
+        db.getInvalidationTracker().addObserver(observer);
+        invalidate(); // Screens switch to the new store's items
+    }
+
+    // Observe the shared snapshot; the first observer triggers the initial load
+    public LiveData<ItemsSnapshot> getItems() {
+        return items;
+    }
+
+    // Load the snapshot ahead of the first screen that needs it, e.g. during login
+    public void warmUp() {
+        if (!isFresh()) {
+            reload();
+        }
+    }
+
+    // Mark the snapshot stale and reload it if anyone is watching
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (items.hasActiveObservers()) {
+            reload();
+        }
+    }
+
+    // Look up one item, from memory when the snapshot is current; call off the main thread
+    public Items getItemById(int id) {
+        ItemsSnapshot snapshot = current;
+        if (snapshot != null && isFresh()) {
+            int row = snapshot.rowOf(id);
+            return row < 0 ? null : snapshot.toItem(row);
+        }
+        return db.itemsDao().getItemById(id);
+    }
+
+    private boolean isFresh() {
+        return currentGeneration == generation.get();
+    }
+
+    private void reload() {
+        if (!loadQueued.compareAndSet(false, true)) {
+            return; // A queued load will pick up this invalidation too
+        }
+        executor.execute(() -> {
+            loadQueued.set(false);
+            int loadGeneration = generation.get(); // Invalidations after this point queue another load
+            Trace.beginSection("ItemsRepository.load");
+            ItemsSnapshot snapshot = ItemsSnapshot.fromCursor(db.itemsDao().getItemsCursor()); // First call also opens the database
+            Trace.endSection();
+            current = snapshot;
+            currentGeneration = loadGeneration;
+            items.postValue(snapshot);
+        });
+    }
+
+    private class SnapshotLiveData extends MutableLiveData<ItemsSnapshot> {
+        @Override
+        protected void onActive() {
+            if (!isFresh()) {
+                reload(); // Catch up on writes made while no screen was watching
+            }
+        }
+    }
+}
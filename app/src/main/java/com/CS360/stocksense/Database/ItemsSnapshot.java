@@ -0,0 +1,331 @@
+package com.CS360.stocksense.Database;
+
+import android.database.Cursor;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Read-only columnar copy of the items table for client-side sorting and filtering.
+// Rows are addressed by index; sorts and filters return int[] permutations of row indexes.
+public class ItemsSnapshot {
+
+    public enum Column { ID, NAME, QUANTITY, LOCATION, ALERT_LEVEL }
+
+    private static final int PARALLEL_THRESHOLD = 10_000; // Below this a sequential pass is faster
+
+    private final int size;
+    private final int[] ids;
+    private final int[] quantities;
+    private final int[] alertLevels;
+    private final int[] reserved;
+    private final long[] lastAlertTimestamps;
+    private final int[] versions;
+    private final double[] consumptionRates;
+    private final long[] lastConsumptionAts;
+    private final String[] thumbnailUris; // Mostly null, so kept as plain references
+    private final int[] nameCodes; // Index into nameDictionary
+    private final int[] locationCodes; // Index into locationDictionary
+    private final String[] nameDictionary; // Sorted, so code order is name order
+    private final String[] locationDictionary; // Sorted, so code order is location order
+    private volatile int[] rowsById; // Built on first lookup by id
+
+    private ItemsSnapshot(int size, int[] ids, int[] quantities, int[] reserved, int[] alertLevels, long[] lastAlertTimestamps,
+                          int[] versions, double[] consumptionRates, long[] lastConsumptionAts, String[] thumbnailUris, int[] nameCodes, String[] nameDictionary, int[] locationCodes, String[] locationDictionary) {
+        this.size = size;
+        this.ids = ids;
+        this.quantities = quantities;
+        this.reserved = reserved;
+        this.alertLevels = alertLevels;
+        this.lastAlertTimestamps = lastAlertTimestamps;
+        this.versions = versions;
+        this.consumptionRates = consumptionRates;
+        this.lastConsumptionAts = lastConsumptionAts;
+        this.thumbnailUris = thumbnailUris;
+        this.nameCodes = nameCodes;
+        this.nameDictionary = nameDictionary;
+        this.locationCodes = locationCodes;
+        this.locationDictionary = locationDictionary;
+    }
+
+    // Build a snapshot from ItemsDao.getItemsCursor(); the cursor is closed when done
+    public static ItemsSnapshot fromCursor(Cursor cursor) {
+        try {
+            int size = cursor.getCount();
+            int[] ids = new int[size];
+            int[] quantities = new int[size];
+            int[] reserved = new int[size];
+            int[] alertLevels = new int[size];
+            long[] lastAlertTimestamps = new long[size];
+            int[] versions = new int[size];
+            double[] consumptionRates = new double[size];
+            long[] lastConsumptionAts = new long[size];
+            String[] thumbnailUris = new String[size];
+            int[] nameCodes = new int[size];
+            int[] locationCodes = new int[size];
+            Map<String, Integer> names = new HashMap<>();
+            Map<String, Integer> locations = new HashMap<>();
+
+            int idColumn = cursor.getColumnIndexOrThrow("id");
+            int nameColumn = cursor.getColumnIndexOrThrow("itemName");
+            int quantityColumn = cursor.getColumnIndexOrThrow("quantity");
+            int locationColumn = cursor.getColumnIndexOrThrow("location");
+            int reservedColumn = cursor.getColumnIndexOrThrow("reserved");
+            int alertLevelColumn = cursor.getColumnIndexOrThrow("alertLevel");
+            int lastAlertColumn = cursor.getColumnIndexOrThrow("lastAlertTimestamp");
+            int versionColumn = cursor.getColumnIndexOrThrow("version");
+            int rateColumn = cursor.getColumnIndexOrThrow("consumptionRate");
+            int lastConsumptionColumn = cursor.getColumnIndexOrThrow("lastConsumptionAt");
+            int thumbnailColumn = cursor.getColumnIndexOrThrow("thumbnailUri");
+
+            int row = 0;
+            while (cursor.moveToNext() && row < size) {
+                ids[row] = cursor.getInt(idColumn);
+                quantities[row] = cursor.getInt(quantityColumn);
+                reserved[row] = cursor.getInt(reservedColumn);
+                alertLevels[row] = cursor.getInt(alertLevelColumn);
+                lastAlertTimestamps[row] = cursor.getLong(lastAlertColumn);
+                versions[row] = cursor.getInt(versionColumn);
+                consumptionRates[row] = cursor.getDouble(rateColumn);
+                lastConsumptionAts[row] = cursor.getLong(lastConsumptionColumn);
+                thumbnailUris[row] = cursor.getString(thumbnailColumn);
+                nameCodes[row] = encode(names, cursor.getString(nameColumn));
+                locationCodes[row] = encode(locations, cursor.getString(locationColumn));
+                row++;
+            }
+
+            String[] nameDictionary = sortDictionary(names, nameCodes, row);
+            String[] locationDictionary = sortDictionary(locations, locationCodes, row);
+            return new ItemsSnapshot(row, ids, quantities, reserved, alertLevels, lastAlertTimestamps, versions,
+                    consumptionRates, lastConsumptionAts, thumbnailUris,
+                    nameCodes, nameDictionary, locationCodes, locationDictionary);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Assign a provisional code in first-seen order
+    private static int encode(Map<String, Integer> dictionary, String value) {
+        String key = value == null ? "" : value;
+        Integer code = dictionary.get(key);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.put(key, code);
+        }
+        return code;
+    }
+
+    // Sort the dictionary and remap provisional codes so comparing codes compares strings
+    private static String[] sortDictionary(Map<String, Integer> dictionary, int[] codes, int size) {
+        String[] sorted = dictionary.keySet().toArray(new String[0]);
+        Arrays.sort(sorted);
+        int[] remap = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            remap[dictionary.get(sorted[i])] = i;
+        }
+        for (int row = 0; row < size; row++) {
+            codes[row] = remap[codes[row]];
+        }
+        return sorted;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public String getItemName(int row) {
+        return nameDictionary[nameCodes[row]];
+    }
+
+    public int getQuantity(int row) {
+        return quantities[row];
+    }
+
+    public int getReserved(int row) {
+        return reserved[row];
+    }
+
+    public String getLocation(int row) {
+        return locationDictionary[locationCodes[row]];
+    }
+
+    public int getAlertLevel(int row) {
+        return alertLevels[row];
+    }
+
+    public boolean isLowInventory(int row) {
+        return quantities[row] < alertLevels[row];
+    }
+
+    // Row index of an item id, or -1 if absent
+    public int rowOf(int id) {
+        int[] byId = rowsById;
+        if (byId == null) {
+            byId = sort(allRows(), Column.ID, true);
+            rowsById = byId; // Benign race: every thread computes the same permutation
+        }
+        int low = 0;
+        int high = byId.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = ids[byId[mid]];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return byId[mid];
+            }
+        }
+        return -1;
+    }
+
+    // Materialize one row as an entity
+    public Items toItem(int row) {
+        Items item = new Items(ids[row], getItemName(row), quantities[row], getLocation(row), alertLevels[row]);
+        item.setLastAlertTimestamp(lastAlertTimestamps[row]);
+        item.setReserved(reserved[row]);
+        item.setVersion(versions[row]);
+        item.setConsumptionRate(consumptionRates[row]);
+        item.setLastConsumptionAt(lastConsumptionAts[row]);
+        item.setThumbnailUri(thumbnailUris[row]);
+        return item;
+    }
+
+    // Distinct locations in sorted order
+    public String[] getLocations() {
+        return locationDictionary.clone();
+    }
+
+    // Row indexes in table order
+    public int[] allRows() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    // Return rows sorted by a column; ties keep their relative order in rows
+    public int[] sort(int[] rows, Column column, boolean ascending) {
+        // Pack (key, position) into one long so a primitive sort orders rows without boxing
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int key = key(rows[i], column);
+            if (!ascending) {
+                key = ~key; // Reverses order without overflowing on Integer.MIN_VALUE
+            }
+            packed[i] = ((long) key << 32) | i;
+        }
+        if (packed.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(packed);
+        } else {
+            Arrays.sort(packed);
+        }
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < packed.length; i++) {
+            sorted[i] = rows[(int) packed[i]];
+        }
+        return sorted;
+    }
+
+    private int key(int row, Column column) {
+        switch (column) {
+            case ID:
+                return ids[row];
+            case NAME:
+                return nameCodes[row];
+            case QUANTITY:
+                return quantities[row];
+            case LOCATION:
+                return locationCodes[row];
+            case ALERT_LEVEL:
+                return alertLevels[row];
+            default:
+                throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    // Keep rows whose name contains the query (case-insensitive); matching is done once per distinct name
+    public int[] filterByName(int[] rows, String query) {
+        if (query == null || query.isEmpty()) {
+            return rows;
+        }
+        String needle = query.toLowerCase(Locale.ROOT);
+        boolean[] matches = new boolean[nameDictionary.length];
+        for (int code = 0; code < nameDictionary.length; code++) {
+            matches[code] = nameDictionary[code].toLowerCase(Locale.ROOT).contains(needle);
+        }
+        return rowStream(rows).filter(row -> matches[nameCodes[row]]).toArray();
+    }
+
+    // Keep rows stored at the given location
+    public int[] filterByLocation(int[] rows, String location) {
+        int code = Arrays.binarySearch(locationDictionary, location == null ? "" : location);
+        if (code < 0) {
+            return new int[0];
+        }
+        return rowStream(rows).filter(row -> locationCodes[row] == code).toArray();
+    }
+
+    // Keep rows whose quantity is below their alert level
+    public int[] filterLowInventory(int[] rows) {
+        return rowStream(rows).filter(row -> quantities[row] < alertLevels[row]).toArray();
+    }
+
+    // Ordered stream over rows; parallel for large inputs, toArray() keeps the input order
+    private static IntStream rowStream(int[] rows) {
+        IntStream stream = Arrays.stream(rows);
+        return rows.length >= PARALLEL_THRESHOLD ? stream.parallel() : stream;
+    }
+
+    // List view over rows for the adapters; each row is materialized once, on first bind
+    public List<Items> asList(int[] rows) {
+        return new RowList(rows);
+    }
+
+    private class RowList extends AbstractList<Items> {
+
+        private final int[] order; // Rows still in the list, in display order
+        private int count;
+        private final Items[] materialized = new Items[size];
+
+        RowList(int[] rows) {
+            order = rows.clone();
+            count = rows.length;
+        }
+
+        @Override
+        public Items get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+            }
+            int row = order[index];
+            if (materialized[row] == null) {
+                materialized[row] = toItem(row);
+            }
+            return materialized[row];
+        }
+
+        @Override
+        public Items remove(int index) {
+            Items item = get(index);
+            System.arraycopy(order, index + 1, order, index, count - index - 1);
+            count--;
+            modCount++;
+            return item;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "lots", // Define lots table
+        foreignKeys = @ForeignKey(entity = Items.class, parentColumns = "id", childColumns = "itemId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {
+                @Index({"itemId", "expiryDate"}), // FEFO picking per item
+                @Index("expiryDate") // Range scans for expiring lots
+        })
+public class Lot {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private int itemId;
+    private int quantity; // Units left in this lot
+    private long expiryDate; // Expiry time in milliseconds
+    private long lastAlertTimestamp; // Timestamp of last expiry alert
+
+    // Constructor
+    public Lot(int itemId, int quantity, long expiryDate) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.expiryDate = expiryDate;
+        lastAlertTimestamp = 0;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for quantity
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    // Getter and setter for expiryDate
+    public long getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(long expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    // Getter and setter for lastAlertTimestamp
+    public long getLastAlertTimestamp() {
+        return lastAlertTimestamp;
+    }
+
+    public void setLastAlertTimestamp(long lastAlertTimestamp) {
+        this.lastAlertTimestamp = lastAlertTimestamp;
+    }
+}
@@ -0,0 +1,90 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+
+// Lots record when an item's units expire. items.quantity stays the on-hand count that every screen
+// edits directly; receiveLot and pickFefo move it along with the lots, but it is not kept equal to
+// their sum. Read the lot total with getLotQuantity, a range scan of the item's lots.
+@Dao // Data Access Object for Lots
+public interface LotsDao {
+
+    @Insert // Insert a new lot
+    long insert(Lot lot);
+
+    @Query("SELECT * FROM lots WHERE itemId = :itemId AND quantity > 0 ORDER BY expiryDate") // Get lots of an item, first-expiring first
+    List<Lot> getLotsFefo(int itemId);
+
+    @Query("SELECT COALESCE(SUM(quantity), 0) FROM lots WHERE itemId = :itemId") // Units held in an item's lots
+    int getLotQuantity(int itemId);
+
+    @Query("UPDATE lots SET quantity = :quantity WHERE id = :id") // Update quantity of a lot
+    void updateLotQuantity(long id, int quantity);
+
+    @Query("DELETE FROM lots WHERE id = :id") // Delete an empty lot
+    void deleteLot(long id);
+
+    @Query("UPDATE items SET quantity = quantity + :delta, version = version + 1 WHERE id = :itemId") // Move the on-hand count with the lots
+    void adjustItemQuantity(int itemId, int delta);
+
+    @Query("SELECT quantity - reserved FROM items WHERE id = :itemId AND deletedAt = 0") // Units not held for orders
+    int getAvailableQuantity(int itemId);
+
+    @Query("SELECT COALESCE(SUM(quantity), 0) FROM lots WHERE itemId = :itemId AND expiryDate <= :now") // Units past their expiry date
+    int getExpiredQuantity(int itemId, long now);
+
+    // Range scan on the expiryDate index; lots alerted since alertedBefore are skipped. A lot is
+    // alerted while it is about to expire and once more after it has, then left for disposeExpired.
+    @Query("SELECT lots.*, items.itemName AS itemName, items.location AS itemLocation FROM lots JOIN items ON items.id = lots.itemId "
+            + "WHERE lots.expiryDate <= :expiresBefore AND lots.quantity > 0 AND lots.lastAlertTimestamp < :alertedBefore "
+            + "AND (lots.expiryDate > :now OR lots.lastAlertTimestamp < lots.expiryDate) AND items.deletedAt = 0 "
+            + "ORDER BY lots.expiryDate")
+    List<ExpiringLot> getExpiringLots(long now, long expiresBefore, long alertedBefore);
+
+    @Query("UPDATE lots SET lastAlertTimestamp = :timestamp WHERE id IN (:ids)") // Record expiry alerts for a chunk of lots
+    void updateLastAlertTimestamps(List<Long> ids, long timestamp);
+
+    @Transaction // Add a received lot and its units to the item total
+    default long receiveLot(int itemId, int quantity, long expiryDate) {
+        long id = insert(new Lot(itemId, quantity, expiryDate));
+        adjustItemQuantity(itemId, quantity);
+        return id;
+    }
+
+    @Transaction // Take up to n unreserved units from the first-expiring lots; returns the number taken
+    default int pickFefo(int itemId, int n) {
+        n = Math.min(n, getAvailableQuantity(itemId)); // Read inside the transaction, so no reservation can slip in
+        int taken = 0;
+        for (Lot lot : getLotsFefo(itemId)) {
+            if (taken >= n) {
+                break;
+            }
+            int take = Math.min(n - taken, lot.getQuantity());
+            if (take == lot.getQuantity()) {
+                deleteLot(lot.getId());
+            } else {
+                updateLotQuantity(lot.getId(), lot.getQuantity() - take);
+            }
+            taken += take;
+        }
+        if (taken > 0) {
+            adjustItemQuantity(itemId, -taken);
+        }
+        return taken;
+    }
+
+    @Transaction // Write off expired units, which are the first-expiring ones; returns the number disposed
+    default int disposeExpired(int itemId, long now) {
+        return pickFefo(itemId, getExpiredQuantity(itemId, now)); // Reserved units stay, as with any pick
+    }
+
+    @Transaction // Mark lots as alerted in one transaction
+    default void markAlerted(List<Long> ids, long timestamp) {
+        for (int start = 0; start < ids.size(); start += ItemsDao.BULK_CHUNK_SIZE) {
+            updateLastAlertTimestamps(ids.subList(start, Math.min(start + ItemsDao.BULK_CHUNK_SIZE, ids.size())), timestamp);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import java.util.List;
+
+@Dao // Data Access Object for MaintenanceRecords
+public interface MaintenanceDao {
+
+    @Insert // Insert the records of one maintenance run
+    void insertAll(List<MaintenanceRecord> records);
+
+    @Query("SELECT * FROM maintenance_records ORDER BY timestamp DESC LIMIT :limit") // Get the most recent records
+    List<MaintenanceRecord> getRecentRecords(int limit);
+
+    @Query("DELETE FROM maintenance_records WHERE timestamp < :cutoff") // Drop old records
+    void deleteOlderThan(long cutoff);
+}
@@ -0,0 +1,81 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "maintenance_records", indices = @Index("timestamp")) // Define maintenance log table
+public class MaintenanceRecord {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private long timestamp; // When the step ran
+    private String step; // Maintenance step name
+    private long durationMs; // How long the step took
+    private long bytesReclaimed; // Space returned to the file system, 0 if not applicable
+    private String result; // Step output, e.g. "ok" from the integrity check
+
+    // Constructor
+    public MaintenanceRecord(long timestamp, String step, long durationMs, long bytesReclaimed, String result) {
+        this.timestamp = timestamp;
+        this.step = step;
+        this.durationMs = durationMs;
+        this.bytesReclaimed = bytesReclaimed;
+        this.result = result;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for timestamp
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    // Getter and setter for step
+    public String getStep() {
+        return step;
+    }
+
+    public void setStep(String step) {
+        this.step = step;
+    }
+
+    // Getter and setter for durationMs
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    // Getter and setter for bytesReclaimed
+    public long getBytesReclaimed() {
+        return bytesReclaimed;
+    }
+
+    public void setBytesReclaimed(long bytesReclaimed) {
+        this.bytesReclaimed = bytesReclaimed;
+    }
+
+    // Getter and setter for result
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+}
@@ -0,0 +1,132 @@
+package com.CS360.stocksense.Database;
+
+import androidx.annotation.NonNull;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+// Schema migrations for every released version. Each one only runs DDL that SQLite does without
+// rewriting tables (ADD COLUMN with a default, CREATE TABLE/INDEX), so the open stays short even on
+// large stores. Anything that has to touch every row is queued as a Backfill instead and run in
+// chunks by BackfillWorker once the app is up.
+public final class Migrations {
+
+    private static final String CREATE_BACKFILLS =
+            "CREATE TABLE IF NOT EXISTS `backfills` (`name` TEXT NOT NULL, `lastId` INTEGER NOT NULL, PRIMARY KEY(`name`))";
+
+    static final Migration MIGRATION_1_2 = migration(1, 2, // Item version column
+            "ALTER TABLE `items` ADD COLUMN `version` INTEGER NOT NULL DEFAULT 0");
+
+    static final Migration MIGRATION_2_3 = migration(2, 3, // Item photos
+            "ALTER TABLE `items` ADD COLUMN `thumbnailUri` TEXT");
+
+    static final Migration MIGRATION_3_4 = migration(3, 4, // Stock reservations
+            "ALTER TABLE `items` ADD COLUMN `reserved` INTEGER NOT NULL DEFAULT 0",
+            "CREATE TABLE IF NOT EXISTS `reservations` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`itemId` INTEGER NOT NULL, `quantity` INTEGER NOT NULL, `orderRef` TEXT, `createdAt` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`itemId`) REFERENCES `items`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+            "CREATE INDEX IF NOT EXISTS `index_reservations_itemId` ON `reservations` (`itemId`)");
+
+    static final Migration MIGRATION_4_5 = migration(4, 5, // Lots with expiry dates
+            "CREATE TABLE IF NOT EXISTS `lots` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`itemId` INTEGER NOT NULL, `quantity` INTEGER NOT NULL, `expiryDate` INTEGER NOT NULL, "
+                    + "`lastAlertTimestamp` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`itemId`) REFERENCES `items`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+            "CREATE INDEX IF NOT EXISTS `index_lots_itemId_expiryDate` ON `lots` (`itemId`, `expiryDate`)",
+            "CREATE INDEX IF NOT EXISTS `index_lots_expiryDate` ON `lots` (`expiryDate`)");
+
+    static final Migration MIGRATION_5_6 = migration(5, 6, // Maintenance history
+            "CREATE TABLE IF NOT EXISTS `maintenance_records` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL, `step` TEXT, `durationMs` INTEGER NOT NULL, "
+                    + "`bytesReclaimed` INTEGER NOT NULL, `result` TEXT)",
+            "CREATE INDEX IF NOT EXISTS `index_maintenance_records_timestamp` ON `maintenance_records` (`timestamp`)");
+
+    static final Migration MIGRATION_6_7 = migration(6, 7, // Daily quantity rollups
+            "CREATE TABLE IF NOT EXISTS `quantity_series` (`itemId` INTEGER NOT NULL, `month` INTEGER NOT NULL, "
+                    + "`data` BLOB, PRIMARY KEY(`itemId`, `month`))");
+
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) { // Consumption forecast
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `items` ADD COLUMN `consumptionRate` REAL NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `items` ADD COLUMN `lastConsumptionAt` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `items` ADD COLUMN `stockoutAt` INTEGER");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_items_stockoutAt` ON `items` (`stockoutAt`)"); // All NULL, so a cheap build
+            finish(db);
+            enqueueBackfill(db, Backfills.CONSUMPTION_RATES); // Seed rates from the rollups recorded since version 7
+        }
+    };
+
+    static final Migration MIGRATION_8_9 = migration(8, 9, // Soft delete
+            "ALTER TABLE `items` ADD COLUMN `deletedAt` INTEGER NOT NULL DEFAULT 0");
+
+    static final Migration MIGRATION_9_10 = migration(9, 10, // Unique usernames and SMS recipient index
+            // Older builds allowed duplicate usernames; keep the first account's name and suffix the rest
+            "UPDATE `users` SET `username` = `username` || '#' || `id` "
+                    + "WHERE `id` NOT IN (SELECT MIN(`id`) FROM `users` GROUP BY `username`)",
+            "CREATE UNIQUE INDEX IF NOT EXISTS `index_users_username` ON `users` (`username`)",
+            "CREATE INDEX IF NOT EXISTS `index_users_isEnrolledInSMS` ON `users` (`isEnrolledInSMS`)");
+
+    static final Migration MIGRATION_10_11 = migration(10, 11, // Alert rules
+            "CREATE TABLE IF NOT EXISTS `alert_rules` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT, `location` TEXT, `itemPattern` TEXT, `percentOfAlertLevel` INTEGER NOT NULL, "
+                    + "`cooldownMinutes` INTEGER NOT NULL, `quietStart` INTEGER NOT NULL, `quietEnd` INTEGER NOT NULL, "
+                    + "`priority` INTEGER NOT NULL, `overrides` INTEGER NOT NULL, `enabled` INTEGER NOT NULL)");
+
+    static final Migration MIGRATION_11_12 = migration(11, 12, // Audit log
+            "CREATE TABLE IF NOT EXISTS `audit_log` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`segment` INTEGER NOT NULL, `timestamp` INTEGER NOT NULL, `userId` INTEGER NOT NULL, `action` TEXT, "
+                    + "`itemId` INTEGER NOT NULL, `quantityDelta` INTEGER NOT NULL, `detail` TEXT)",
+            "CREATE INDEX IF NOT EXISTS `index_audit_log_itemId_timestamp` ON `audit_log` (`itemId`, `timestamp`)",
+            "CREATE INDEX IF NOT EXISTS `index_audit_log_timestamp` ON `audit_log` (`timestamp`)",
+            "CREATE INDEX IF NOT EXISTS `index_audit_log_segment` ON `audit_log` (`segment`)");
+
+    static final Migration MIGRATION_12_13 = migration(12, 13, // Backfill queue
+            CREATE_BACKFILLS);
+
+    static final Migration MIGRATION_13_14 = migration(13, 14, // Cycle count sessions
+            "CREATE TABLE IF NOT EXISTS `cycle_counts` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`startedAt` INTEGER NOT NULL, `location` TEXT, `userId` INTEGER NOT NULL, `appliedAt` INTEGER NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS `cycle_count_entries` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`sessionId` INTEGER NOT NULL, `itemId` INTEGER NOT NULL, `countedQuantity` INTEGER NOT NULL, "
+                    + "`expectedQuantity` INTEGER NOT NULL, `countedAt` INTEGER NOT NULL, "
+                    + "FOREIGN KEY(`sessionId`) REFERENCES `cycle_counts`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )",
+            "CREATE INDEX IF NOT EXISTS `index_cycle_count_entries_sessionId_itemId` ON `cycle_count_entries` (`sessionId`, `itemId`)");
+
+    static final Migration MIGRATION_14_15 = migration(14, 15, // Forecast alerts apart from low-stock alerts
+            "ALTER TABLE `items` ADD COLUMN `lastForecastAlertAt` INTEGER NOT NULL DEFAULT 0");
+
+    // In version order; each database walks the chain from its own version
+    public static final Migration[] ALL = {
+            MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7,
+            MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13,
+            MIGRATION_13_14, MIGRATION_14_15
+    };
+
+    private Migrations() {
+    }
+
+    private static Migration migration(int startVersion, int endVersion, String... statements) {
+        return new Migration(startVersion, endVersion) {
+            @Override
+            public void migrate(@NonNull SupportSQLiteDatabase db) {
+                for (String statement : statements) {
+                    db.execSQL(statement);
+                }
+                finish(db);
+            }
+        };
+    }
+
+    // Room checks every index on a table once migrations are done and does not know about the partial
+    // indexes, so they are dropped here and rebuilt in the background rather than during the open
+    private static void finish(SupportSQLiteDatabase db) {
+        db.execSQL("DROP INDEX IF EXISTS index_items_live");
+        db.execSQL("DROP INDEX IF EXISTS index_items_tombstones");
+        enqueueBackfill(db, Backfills.PARTIAL_INDEXES);
+    }
+
+    private static void enqueueBackfill(SupportSQLiteDatabase db, String name) {
+        db.execSQL(CREATE_BACKFILLS); // Older versions queue backfills before MIGRATION_12_13 runs
+        db.execSQL("INSERT OR IGNORE INTO `backfills` (`name`, `lastId`) VALUES (?, ?)", new Object[]{name, Backfill.START});
+    }
+}
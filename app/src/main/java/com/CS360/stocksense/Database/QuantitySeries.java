@@ -0,0 +1,47 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+
+// One item's daily quantities for one month, encoded by QuantitySeriesCodec.
+// Only days where the quantity changed (plus the first day recorded) are stored.
+@Entity(tableName = "quantity_series", primaryKeys = {"itemId", "month"}) // Define quantity series table
+public class QuantitySeries {
+
+    private int itemId;
+    private int month; // year * 12 + (month - 1), see QuantitySeriesCodec.monthKey
+    private byte[] data; // Delta and varint encoded (day, quantity) pairs
+
+    // Constructor
+    public QuantitySeries(int itemId, int month, byte[] data) {
+        this.itemId = itemId;
+        this.month = month;
+        this.data = data;
+    }
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for month
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    // Getter and setter for data
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,96 @@
+package com.CS360.stocksense.Database;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Encoding for QuantitySeries blobs: a run of (day delta, quantity delta) pairs, the first pair
+// relative to (day 0, quantity 0). Day deltas are unsigned varints, quantity deltas zigzag varints.
+public final class QuantitySeriesCodec {
+
+    public static final int NO_DATA = Integer.MIN_VALUE; // Day with no recorded quantity
+    public static final int MAX_ENTRIES = 31; // At most one entry per day of a month
+
+    private QuantitySeriesCodec() {
+    }
+
+    public static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    // Record a day's quantity; replaces the last entry if it is for the same day, skips unchanged values
+    public static byte[] append(byte[] data, int day, int quantity) {
+        int[] days = new int[MAX_ENTRIES];
+        int[] quantities = new int[MAX_ENTRIES];
+        int count = data == null ? 0 : decode(data, days, quantities);
+
+        if (count > 0 && days[count - 1] == day) {
+            count--; // Re-run on the same day overwrites that day
+        }
+        if (count > 0 && quantities[count - 1] == quantity) {
+            return encode(days, quantities, count); // Unchanged, carried forward when read
+        }
+        days[count] = day;
+        quantities[count] = quantity;
+        return encode(days, quantities, count + 1);
+    }
+
+    public static byte[] encode(int[] days, int[] quantities, int count) {
+        byte[] buffer = new byte[count * 10]; // Worst case 5 bytes per varint
+        int position = 0;
+        int previousDay = 0;
+        int previousQuantity = 0;
+        for (int i = 0; i < count; i++) {
+            position = writeVarint(buffer, position, days[i] - previousDay);
+            position = writeVarint(buffer, position, zigzag(quantities[i] - previousQuantity));
+            previousDay = days[i];
+            previousQuantity = quantities[i];
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    // Decode into days and quantities (each at least MAX_ENTRIES long); returns the entry count
+    public static int decode(byte[] data, int[] days, int[] quantities) {
+        int position = 0;
+        int count = 0;
+        int day = 0;
+        int quantity = 0;
+        while (position < data.length) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do { // Day delta
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            day += value;
+
+            value = 0;
+            shift = 0;
+            do { // Quantity delta
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            quantity += (value >>> 1) ^ -(value & 1);
+
+            days[count] = day;
+            quantities[count] = quantity;
+            count++;
+        }
+        return count;
+    }
+
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31); // Small negative deltas stay small
+    }
+}
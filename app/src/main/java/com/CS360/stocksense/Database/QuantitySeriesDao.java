@@ -0,0 +1,104 @@
+package com.CS360.stocksense.Database;
+
+import android.database.Cursor;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Dao // Data Access Object for QuantitySeries
+public interface QuantitySeriesDao {
+
+    int ROLLUP_BATCH_SIZE = 1000; // Rows written per insert call during a rollup
+
+    @Query("SELECT * FROM quantity_series WHERE month = :month") // Get all series of one month
+    List<QuantitySeries> getSeriesForMonth(int month);
+
+    @Query("SELECT * FROM quantity_series WHERE itemId = :itemId AND month BETWEEN :fromMonth AND :toMonth ORDER BY month") // Get one item's series, primary key range
+    List<QuantitySeries> getSeriesForItem(int itemId, int fromMonth, int toMonth);
+
+    @Query("SELECT * FROM quantity_series WHERE itemId > :afterId AND itemId <= :throughId AND month >= :fromMonth ORDER BY itemId, month") // Series of an item id range, primary key range
+    List<QuantitySeries> getSeriesForItems(int afterId, int throughId, int fromMonth);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE) // Insert or replace series rows
+    void upsertAll(List<QuantitySeries> series);
+
+    @Query("DELETE FROM quantity_series WHERE month < :month") // Drop months past retention
+    void deleteBefore(int month);
+
+    @Query("SELECT id, quantity FROM items WHERE deletedAt = 0") // Stream current quantities for the rollup
+    Cursor getQuantitiesCursor();
+
+    @Transaction // Record today's quantity of every item in one transaction
+    default void rollup(LocalDate date) {
+        int month = QuantitySeriesCodec.monthKey(date);
+        int day = date.getDayOfMonth();
+
+        Map<Integer, byte[]> existing = new HashMap<>();
+        for (QuantitySeries series : getSeriesForMonth(month)) { // One query instead of one per item
+            existing.put(series.getItemId(), series.getData());
+        }
+
+        List<QuantitySeries> batch = new ArrayList<>(ROLLUP_BATCH_SIZE);
+        try (Cursor cursor = getQuantitiesCursor()) {
+            while (cursor.moveToNext()) {
+                int itemId = cursor.getInt(0);
+                byte[] before = existing.get(itemId);
+                byte[] after = QuantitySeriesCodec.append(before, day, cursor.getInt(1));
+                if (before != null && Arrays.equals(before, after)) {
+                    continue; // Unchanged quantity, nothing to write
+                }
+                batch.add(new QuantitySeries(itemId, month, after));
+                if (batch.size() == ROLLUP_BATCH_SIZE) {
+                    upsertAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            upsertAll(batch);
+        }
+    }
+
+    // Daily quantities of one item from..to inclusive, carried forward between recorded changes.
+    // Days before the first recorded value are QuantitySeriesCodec.NO_DATA.
+    default int[] getDailyQuantities(int itemId, LocalDate from, LocalDate to) {
+        int[] result = new int[(int) (to.toEpochDay() - from.toEpochDay()) + 1];
+        Arrays.fill(result, QuantitySeriesCodec.NO_DATA);
+        int[] days = new int[QuantitySeriesCodec.MAX_ENTRIES];
+        int[] quantities = new int[QuantitySeriesCodec.MAX_ENTRIES];
+        long fromEpochDay = from.toEpochDay();
+
+        int carried = QuantitySeriesCodec.NO_DATA;
+        int filledUpTo = 0; // Next result index to fill
+        for (QuantitySeries series : getSeriesForItem(itemId, QuantitySeriesCodec.monthKey(from), QuantitySeriesCodec.monthKey(to))) {
+            int year = series.getMonth() / 12;
+            int monthValue = series.getMonth() % 12 + 1;
+            long monthStart = LocalDate.of(year, monthValue, 1).toEpochDay() - 1; // Epoch day of "day 0"
+
+            int count = QuantitySeriesCodec.decode(series.getData(), days, quantities);
+            for (int i = 0; i < count; i++) {
+                int index = (int) (monthStart + days[i] - fromEpochDay);
+                if (index >= result.length) {
+                    break;
+                }
+                if (index > filledUpTo && carried != QuantitySeriesCodec.NO_DATA) {
+                    Arrays.fill(result, filledUpTo, index, carried);
+                }
+                carried = quantities[i];
+                filledUpTo = Math.max(filledUpTo, index);
+            }
+        }
+        if (carried != QuantitySeriesCodec.NO_DATA && filledUpTo < result.length) {
+            Arrays.fill(result, filledUpTo, result.length, carried);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+@Entity(tableName = "reservations", // Define reservations table
+        foreignKeys = @ForeignKey(entity = Items.class, parentColumns = "id", childColumns = "itemId",
+                onDelete = ForeignKey.CASCADE),
+        indices = @Index("itemId"))
+public class Reservation {
+
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    private int itemId;
+    private int quantity; // Units held for this order
+    private String orderRef; // Order or pick session holding the stock
+    private long createdAt;
+
+    // Constructor
+    public Reservation(int itemId, int quantity, String orderRef, long createdAt) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.orderRef = orderRef;
+        this.createdAt = createdAt;
+    }
+
+    // Getter and setter for id
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    // Getter and setter for itemId
+    public int getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(int itemId) {
+        this.itemId = itemId;
+    }
+
+    // Getter and setter for quantity
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    // Getter and setter for orderRef
+    public String getOrderRef() {
+        return orderRef;
+    }
+
+    public void setOrderRef(String orderRef) {
+        this.orderRef = orderRef;
+    }
+
+    // Getter and setter for createdAt
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+}
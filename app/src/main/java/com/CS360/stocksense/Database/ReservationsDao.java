@@ -0,0 +1,71 @@
+package com.CS360.stocksense.Database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+
+@Dao // Data Access Object for Reservations
+public interface ReservationsDao {
+
+    long NOT_RESERVED = -1; // Returned by reserve() when not enough stock is available
+    int RELEASE_CHUNK_SIZE = ItemsDao.BULK_CHUNK_SIZE / 2; // releaseHeldUnits binds :ids twice
+    int COMMIT_CHUNK_SIZE = ItemsDao.BULK_CHUNK_SIZE / 3; // commitHeldUnits binds :ids three times
+
+    // Other item writes keep quantity >= reserved with the same kind of guarded statement, so units
+    // held here cannot be sold, picked or counted away underneath a picker.
+
+    // Hold n units only if that many are still unreserved. The check and the increment are one
+    // statement, so concurrent pickers can never reserve more than is on hand.
+    @Query("UPDATE items SET reserved = reserved + :n WHERE id = :itemId AND quantity - reserved >= :n AND deletedAt = 0")
+    int tryReserve(int itemId, int n);
+
+    @Insert // Insert a new reservation
+    long insert(Reservation reservation);
+
+    @Query("SELECT * FROM reservations WHERE itemId = :itemId") // Get reservations of an item
+    List<Reservation> getReservationsForItem(int itemId);
+
+    @Query("SELECT * FROM reservations WHERE orderRef = :orderRef") // Get reservations of an order
+    List<Reservation> getReservationsForOrder(String orderRef);
+
+    @Query("UPDATE items SET reserved = reserved - (SELECT SUM(r.quantity) FROM reservations r WHERE r.itemId = items.id AND r.id IN (:ids)) "
+            + "WHERE id IN (SELECT itemId FROM reservations WHERE id IN (:ids))") // Return held units of a chunk of reservations
+    void releaseHeldUnits(List<Long> ids);
+
+    @Query("UPDATE items SET quantity = quantity - (SELECT SUM(r.quantity) FROM reservations r WHERE r.itemId = items.id AND r.id IN (:ids)), "
+            + "reserved = reserved - (SELECT SUM(r.quantity) FROM reservations r WHERE r.itemId = items.id AND r.id IN (:ids)), "
+            + "version = version + 1 "
+            + "WHERE id IN (SELECT itemId FROM reservations WHERE id IN (:ids))") // Take held units of a chunk of reservations out of stock
+    void commitHeldUnits(List<Long> ids);
+
+    @Query("DELETE FROM reservations WHERE id IN (:ids)") // Delete a chunk of reservations
+    void deleteByIds(List<Long> ids);
+
+    @Transaction // Reserve n units of an item; returns the reservation id or NOT_RESERVED
+    default long reserve(int itemId, int n, String orderRef) {
+        if (n <= 0 || tryReserve(itemId, n) == 0) {
+            return NOT_RESERVED;
+        }
+        return insert(new Reservation(itemId, n, orderRef, System.currentTimeMillis()));
+    }
+
+    @Transaction // Cancel reservations and make their units available again, in one transaction
+    default void release(List<Long> ids) {
+        for (int start = 0; start < ids.size(); start += RELEASE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + RELEASE_CHUNK_SIZE, ids.size()));
+            releaseHeldUnits(chunk);
+            deleteByIds(chunk);
+        }
+    }
+
+    @Transaction // Fulfil reservations by removing their units from stock, in one transaction
+    default void commit(List<Long> ids) {
+        for (int start = 0; start < ids.size(); start += COMMIT_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + COMMIT_CHUNK_SIZE, ids.size()));
+            commitHeldUnits(chunk);
+            deleteByIds(chunk);
+        }
+    }
+}
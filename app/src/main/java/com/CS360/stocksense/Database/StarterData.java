@@ -1,6 +1,7 @@
 package com.CS360.stocksense.Database;
 
 import android.content.Context;
+import androidx.tracing.Trace;
 
 public class StarterData {
 
@@ -24,24 +25,27 @@ public class StarterData {
             new Items(42,"Red Paper", 25, "F6", 10)
     };
 
-    // Populate initial data into the database
+    // Populate initial data: demo users into the shared users table, demo items into the default store only
     public static void populateInitialData(Context context) {
-        AppDatabase db = AppDatabase.getInstance(context);
+        AppDatabase db = StoreRegistry.getInstance(context).getAccountsDatabase(); // The default store's database
         new Thread(() -> {
+            Trace.beginSection("StarterData.populateInitialData");
             UserDao userDao = db.userDao();
             ItemsDao itemsDao = db.itemsDao();
 
-            if (userDao.getAllUsers().isEmpty()) { // Insert initial users if database is empty
+            if (!userDao.hasAnyUsers()) { // Insert initial users if database is empty
                 for (User user : INITIAL_USERS) {
                     userDao.insert(user);
                 }
             }
 
-            if (itemsDao.getAllItems().isEmpty()) { // Insert initial items if database is empty
+            // Tombstoned items still hold their ids, so seeding next to them would hit the primary key
+            if (!itemsDao.hasAnyItems()) { // Insert initial items only into an empty table
                 for (Items item : INITIAL_ITEMS) {
                     itemsDao.insert(item);
                 }
             }
+            Trace.endSection();
         }).start();
     }
 }
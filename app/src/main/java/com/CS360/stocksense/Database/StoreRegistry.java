@@ -0,0 +1,142 @@
+package com.CS360.stocksense.Database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps track of the stores on this device, each backed by its own database file,
+// and a small LRU of open AppDatabase instances so switching back to a recent store is instant.
+// Users are shared by every store and live in the default store's database, which stays open.
+public class StoreRegistry {
+
+    public static final String DEFAULT_STORE = "default"; // Uses the original database file
+    private static final String DEFAULT_DATABASE_NAME = "stock_sense_database";
+    private static final String PREFERENCES_FILE = "com.CS360.stocksense.STORES_FILE";
+    private static final String KEY_STORES = "KEY_STORES";
+    private static final String KEY_CURRENT_STORE = "KEY_CURRENT_STORE";
+    private static final int MAX_OPEN_DATABASES = 3; // Current store, the default store and a warm one
+
+    private static StoreRegistry instance; // Singleton instance
+
+    private final Context context;
+    private final SharedPreferences preferences;
+    private final LinkedHashMap<String, AppDatabase> openDatabases =
+            new LinkedHashMap<>(MAX_OPEN_DATABASES + 1, 0.75f, true); // Access order, eldest first
+    private final Map<String, Integer> inUse = new HashMap<>(); // Databases acquired by background work
+    private String currentStore;
+
+    // Get the registry instance
+    public static synchronized StoreRegistry getInstance(Context context) {
+        if (instance == null) {
+            instance = new StoreRegistry(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private StoreRegistry(Context context) {
+        this.context = context;
+        preferences = context.getSharedPreferences(PREFERENCES_FILE, Context.MODE_PRIVATE);
+        currentStore = preferences.getString(KEY_CURRENT_STORE, DEFAULT_STORE);
+    }
+
+    // All stores, sorted by id
+    public synchronized List<String> getStores() {
+        Set<String> stores = new HashSet<>(preferences.getStringSet(KEY_STORES, Collections.emptySet()));
+        stores.add(DEFAULT_STORE);
+        List<String> sorted = new ArrayList<>(stores);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    public synchronized String getCurrentStore() {
+        return currentStore;
+    }
+
+    public synchronized AppDatabase getCurrentDatabase() {
+        return getDatabase(currentStore);
+    }
+
+    // Database holding users and SMS recipients, whichever store is current
+    public synchronized AppDatabase getAccountsDatabase() {
+        return getDatabase(DEFAULT_STORE);
+    }
+
+    // Register a new store; returns its id, or null if the name is empty or taken
+    public synchronized String addStore(String name) {
+        String store = name.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+        if (store.isEmpty() || getStores().contains(store)) {
+            return null;
+        }
+        Set<String> stores = new HashSet<>(preferences.getStringSet(KEY_STORES, Collections.emptySet()));
+        stores.add(store);
+        preferences.edit().putStringSet(KEY_STORES, stores).apply();
+        return store;
+    }
+
+    // Make a store current and point the shared item snapshot at it
+    public void switchStore(String store) {
+        AppDatabase db;
+        synchronized (this) {
+            if (!getStores().contains(store)) {
+                throw new IllegalArgumentException("Unknown store " + store);
+            }
+            currentStore = store;
+            preferences.edit().putString(KEY_CURRENT_STORE, store).apply();
+            db = getDatabase(store);
+        }
+        ItemsRepository.getInstance(context).attach(db);
+    }
+
+    // Open a store's database for background work; it is not closed until released
+    public synchronized AppDatabase acquire(String store) {
+        Integer count = inUse.get(store);
+        inUse.put(store, count == null ? 1 : count + 1);
+        return getDatabase(store);
+    }
+
+    public synchronized void release(String store) {
+        Integer count = inUse.get(store);
+        if (count == null || count <= 1) {
+            inUse.remove(store);
+        } else {
+            inUse.put(store, count - 1);
+        }
+        evictColdDatabases();
+    }
+
+    private AppDatabase getDatabase(String store) {
+        AppDatabase db = openDatabases.get(store); // Also marks it most recently used
+        if (db == null) {
+            db = AppDatabase.build(context, databaseName(store));
+            openDatabases.put(store, db);
+            evictColdDatabases();
+        }
+        return db;
+    }
+
+    // Close least recently used databases beyond the limit, skipping the current, default and acquired ones
+    private void evictColdDatabases() {
+        Iterator<Map.Entry<String, AppDatabase>> iterator = openDatabases.entrySet().iterator();
+        while (openDatabases.size() > MAX_OPEN_DATABASES && iterator.hasNext()) {
+            Map.Entry<String, AppDatabase> entry = iterator.next();
+            if (!entry.getKey().equals(currentStore) && !entry.getKey().equals(DEFAULT_STORE)
+                    && !inUse.containsKey(entry.getKey())) {
+                entry.getValue().close(); // Releases the connection pool and file handles
+                iterator.remove();
+            }
+        }
+    }
+
+    public static String databaseName(String store) {
+        return DEFAULT_STORE.equals(store) ? DEFAULT_DATABASE_NAME : DEFAULT_DATABASE_NAME + "_" + store;
+    }
+}
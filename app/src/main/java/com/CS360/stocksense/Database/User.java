@@ -1,9 +1,14 @@
 package com.CS360.stocksense.Database;
 
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "users") // Define users table
+@Entity(tableName = "users", // Define users table
+        indices = {
+                @Index(value = "username", unique = true), // Login lookups, and no duplicate usernames
+                @Index("isEnrolledInSMS") // Alert recipient lookup
+        })
 public class User {
 
     @PrimaryKey(autoGenerate = true)
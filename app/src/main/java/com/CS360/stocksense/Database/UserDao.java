@@ -16,9 +16,15 @@ public interface UserDao {
     @Query("SELECT * FROM users WHERE username = :username AND password = :password LIMIT 1") // Get user by username and password
     User getUser(String username, String password);
 
+    @Query("SELECT phoneNumber FROM users WHERE isEnrolledInSMS = 1 AND phoneNumber IS NOT NULL AND phoneNumber != ''") // Get phone numbers of SMS-enrolled users
+    List<String> getSmsRecipients();
+
     @Query("SELECT * FROM users") // Get all users
     List<User> getAllUsers();
 
+    @Query("SELECT EXISTS(SELECT 1 FROM users)") // Check for any user without loading them
+    boolean hasAnyUsers();
+
     @Update // Update user information
     void updateUser(User user);
 }
@@ -0,0 +1,139 @@
+package com.CS360.stocksense;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.AuditEvent;
+import com.CS360.stocksense.Database.MaintenanceRecord;
+import com.CS360.stocksense.Database.StoreRegistry;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseMaintenanceWorker extends Worker {
+
+    private static final String TAG = "DatabaseMaintenance";
+    private static final long RECORD_RETENTION = TimeUnit.DAYS.toMillis(90); // Keep 90 days of maintenance history
+    private static final int AUTO_VACUUM_INCREMENTAL = 2; // PRAGMA auto_vacuum value for INCREMENTAL
+    private static final long UNDO_GRACE = TimeUnit.MINUTES.toMillis(10); // Tombstones younger than this are kept
+    private static final long AUDIT_COMPACT_AFTER = TimeUnit.DAYS.toMillis(30); // Per-change audit detail kept for 30 days
+    private static final long AUDIT_RETENTION = TimeUnit.DAYS.toMillis(365); // Audit segments dropped after a year
+
+    public DatabaseMaintenanceWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        StoreRegistry registry = StoreRegistry.getInstance(getApplicationContext());
+        boolean healthy = true;
+
+        for (String store : registry.getStores()) { // Maintain every store's database file
+            if (isStopped()) {
+                break; // Device left idle; the next run picks up the rest
+            }
+            AppDatabase db = registry.acquire(store);
+            try {
+                healthy &= maintain(store, db);
+            } finally {
+                registry.release(store);
+            }
+        }
+        return healthy ? Result.success() : Result.failure();
+    }
+
+    private boolean maintain(String store, AppDatabase db) {
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        File file = getApplicationContext().getDatabasePath(StoreRegistry.databaseName(store));
+        File wal = new File(file.getPath() + "-wal");
+        long now = System.currentTimeMillis();
+        List<MaintenanceRecord> records = new ArrayList<>();
+
+        // Hard-delete soft-deleted items in large batches so index maintenance happens in bulk
+        long start = System.nanoTime();
+        int purged = db.itemsDao().purgeDeleted(now - UNDO_GRACE);
+        records.add(record(now, "purge_deleted", start, 0, purged + " items"));
+
+        // Fold old audit segments down to one quantity row per item, user and day, and drop expired ones
+        start = System.nanoTime();
+        int compacted = db.auditDao().compact((now - AUDIT_COMPACT_AFTER) / AuditEvent.SEGMENT_SPAN,
+                (now - AUDIT_RETENTION) / AuditEvent.SEGMENT_SPAN);
+        records.add(record(now, "audit_compact", start, 0, compacted + " events"));
+
+        // Refresh planner statistics; analysis_limit keeps ANALYZE bounded on large tables (ignored by older SQLite)
+        start = System.nanoTime();
+        queryRow(sqlite, "PRAGMA analysis_limit = 1000"); // Returns the new limit, which execSQL rejects
+        sqlite.execSQL("ANALYZE");
+        sqlite.execSQL("PRAGMA optimize");
+        records.add(record(now, "analyze", start, 0, "ok"));
+
+        // Fold the WAL back into the main file and truncate it to zero bytes
+        start = System.nanoTime();
+        long walBefore = wal.length();
+        String checkpoint = queryRow(sqlite, "PRAGMA wal_checkpoint(TRUNCATE)");
+        records.add(record(now, "wal_checkpoint", start, walBefore - wal.length(), checkpoint));
+
+        // Return free pages to the file system; the first run switches the file to incremental mode
+        start = System.nanoTime();
+        long fileBefore = file.length();
+        String vacuum;
+        if (queryLong(sqlite, "PRAGMA auto_vacuum") != AUTO_VACUUM_INCREMENTAL) {
+            sqlite.execSQL("PRAGMA auto_vacuum = INCREMENTAL");
+            sqlite.execSQL("VACUUM"); // One-time rebuild so the new mode takes effect
+            vacuum = "converted";
+        } else {
+            long freePages = queryLong(sqlite, "PRAGMA freelist_count");
+            queryRow(sqlite, "PRAGMA incremental_vacuum");
+            vacuum = freePages + " pages";
+        }
+        records.add(record(now, "incremental_vacuum", start, fileBefore - file.length(), vacuum));
+
+        // Cheap structural check; integrity_check also verifies index contents but is much slower
+        start = System.nanoTime();
+        String integrity = queryRow(sqlite, "PRAGMA quick_check");
+        records.add(record(now, "quick_check", start, 0, integrity));
+
+        db.maintenanceDao().deleteOlderThan(now - RECORD_RETENTION);
+        db.maintenanceDao().insertAll(records);
+        for (MaintenanceRecord record : records) {
+            Log.i(TAG, store + " " + record.getStep() + ": " + record.getDurationMs() + " ms, "
+                    + record.getBytesReclaimed() + " bytes reclaimed, " + record.getResult());
+        }
+        return "ok".equals(integrity);
+    }
+
+    private static MaintenanceRecord record(long timestamp, String step, long startNanos, long bytesReclaimed, String result) {
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new MaintenanceRecord(timestamp, step, durationMs, Math.max(0, bytesReclaimed), result);
+    }
+
+    // Run a PRAGMA and join the columns of its first row
+    private static String queryRow(SupportSQLiteDatabase sqlite, String sql) {
+        try (Cursor cursor = sqlite.query(sql)) {
+            if (!cursor.moveToFirst()) {
+                return "";
+            }
+            StringBuilder row = new StringBuilder();
+            for (int i = 0; i < cursor.getColumnCount(); i++) {
+                if (i > 0) {
+                    row.append(',');
+                }
+                row.append(cursor.getString(i));
+            }
+            return row.toString();
+        }
+    }
+
+    private static long queryLong(SupportSQLiteDatabase sqlite, String sql) {
+        try (Cursor cursor = sqlite.query(sql)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+}
@@ -1,19 +1,31 @@
 package com.CS360.stocksense;
 
 import android.os.Bundle;
+import android.text.InputType;
+import android.view.View;
+import android.widget.EditText;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.AuditEvent;
 import com.CS360.stocksense.Database.Items;
+import com.CS360.stocksense.Database.ItemsSnapshot;
+import com.google.android.material.snackbar.Snackbar;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class DatabaseViewActivity extends MainActivity {
 
     private RecyclerView recyclerView;
     private RecyclerListViewAdapter adapter;
     private AppDatabase db;
+    private ItemsViewModel viewModel;
+    private View bulkActionBar;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -21,29 +33,38 @@ public class DatabaseViewActivity extends MainActivity {
         setContentView(R.layout.activity_database_view);
 
         db = AppDatabase.getInstance(this);
+        viewModel = new ViewModelProvider(this).get(ItemsViewModel.class);
         recyclerView = findViewById(R.id.database_recycler_view);
+        bulkActionBar = findViewById(R.id.bulk_action_bar);
 
         findViewById(R.id.nav_button1).setOnClickListener(v -> onNavButton1Click());
         findViewById(R.id.nav_button3).setOnClickListener(v -> onNavButton3Click());
 
-        loadData(); // Load data from the database
+        findViewById(R.id.bulk_delete_button).setOnClickListener(v -> showBulkDeleteConfirmationDialog());
+        findViewById(R.id.bulk_location_button).setOnClickListener(v -> showBulkLocationDialog());
+        findViewById(R.id.bulk_alert_level_button).setOnClickListener(v -> showBulkAlertLevelDialog());
+
+        viewModel.getItems().observe(this, this::showData); // Shared snapshot, no query when already loaded
     }
 
     @Override
-    protected void onNewItemCreated() {
-        super.onNewItemCreated();
-        loadData(); // Reload data when a new item is created
+    public void onBackPressed() {
+        if (adapter != null && !adapter.getSelectedIds().isEmpty()) {
+            adapter.clearSelection(); // Leave selection mode before leaving the screen
+            return;
+        }
+        super.onBackPressed();
     }
 
-    private void loadData() {
-        new Thread(() -> {
-            List<Items> itemsList = db.itemsDao().getAllItems(); // Fetch all items from the database
-            runOnUiThread(() -> {
-                adapter = new RecyclerListViewAdapter(itemsList, item -> showDeleteConfirmationDialog(item));
-                recyclerView.setLayoutManager(new LinearLayoutManager(this));
-                recyclerView.setAdapter(adapter);
-            });
-        }).start();
+    private void showData(ItemsSnapshot snapshot) {
+        if (adapter == null) {
+            adapter = new RecyclerListViewAdapter(snapshot.asList(snapshot.allRows()), item -> showDeleteConfirmationDialog(item),
+                    selectedCount -> bulkActionBar.setVisibility(selectedCount > 0 ? View.VISIBLE : View.GONE));
+            recyclerView.setLayoutManager(new LinearLayoutManager(this));
+            recyclerView.setAdapter(adapter);
+        } else {
+            adapter.updateData(snapshot.asList(snapshot.allRows())); // Keeps the current selection
+        }
     }
 
     private void showDeleteConfirmationDialog(Items item) {
@@ -57,14 +78,106 @@ public class DatabaseViewActivity extends MainActivity {
 
     private void deleteItem(Items item) {
         new Thread(() -> {
-            db.itemsDao().delete(item); // Delete item from the database
+            List<Integer> ids = Collections.singletonList(item.getId());
+            db.itemsDao().softDeleteItems(ids, System.currentTimeMillis()); // Tombstone item, purged later in the background
+            AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_DELETE, ids, null);
             runOnUiThread(() -> {
                 adapter.removeItem(item); // Remove item from the adapter
-                showToast("Item deleted successfully");
+                showUndoSnackbar("Item deleted", ids);
             });
         }).start();
     }
 
+    private void showBulkDeleteConfirmationDialog() {
+        Set<Integer> selectedIds = adapter.getSelectedIds();
+        new AlertDialog.Builder(this)
+                .setTitle("Delete Items")
+                .setMessage("Are you sure you want to delete " + selectedIds.size() + " items?")
+                .setPositiveButton("Yes", (dialog, which) -> deleteItems(selectedIds))
+                .setNegativeButton("No", null)
+                .show();
+    }
+
+    private void deleteItems(Set<Integer> selectedIds) {
+        new Thread(() -> {
+            List<Integer> ids = new ArrayList<>(selectedIds);
+            db.itemsDao().softDeleteItems(ids, System.currentTimeMillis()); // Tombstone all selected items in one transaction
+            AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_DELETE, ids, null);
+            runOnUiThread(() -> {
+                adapter.removeItems(selectedIds); // Remove items from the adapter in one batch
+                showUndoSnackbar(ids.size() + " items deleted", ids);
+            });
+        }).start();
+    }
+
+    private void showBulkLocationDialog() {
+        Set<Integer> selectedIds = adapter.getSelectedIds();
+        EditText input = new EditText(this);
+        input.setHint(R.string.item_location);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Change Location")
+                .setView(input)
+                .setPositiveButton("OK", (dialog, which) -> {
+                    String location = input.getText().toString();
+                    if (location.isEmpty()) {
+                        showToast("Location must be filled");
+                        return;
+                    }
+                    new Thread(() -> {
+                        List<Integer> ids = new ArrayList<>(selectedIds);
+                        db.itemsDao().updateLocations(ids, location); // Update all selected items in one transaction
+                        AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_UPDATE, ids, "location=" + location);
+                        runOnUiThread(() -> {
+                            adapter.updateLocations(selectedIds, location);
+                            showToast(selectedIds.size() + " items updated successfully");
+                        });
+                    }).start();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showBulkAlertLevelDialog() {
+        Set<Integer> selectedIds = adapter.getSelectedIds();
+        EditText input = new EditText(this);
+        input.setHint(R.string.item_alert_level);
+        input.setInputType(InputType.TYPE_CLASS_NUMBER);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Set Alert Level")
+                .setView(input)
+                .setPositiveButton("OK", (dialog, which) -> {
+                    int alertLevel;
+                    try {
+                        alertLevel = Integer.parseInt(input.getText().toString());
+                    } catch (NumberFormatException e) {
+                        showToast("Invalid number format");
+                        return;
+                    }
+                    new Thread(() -> {
+                        List<Integer> ids = new ArrayList<>(selectedIds);
+                        db.itemsDao().updateAlertLevels(ids, alertLevel); // Update all selected items in one transaction
+                        AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_UPDATE, ids, "alertLevel=" + alertLevel);
+                        runOnUiThread(() -> {
+                            adapter.updateAlertLevels(selectedIds, alertLevel);
+                            showToast(selectedIds.size() + " items updated successfully");
+                        });
+                    }).start();
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showUndoSnackbar(String message, List<Integer> ids) {
+        Snackbar.make(recyclerView, message, Snackbar.LENGTH_LONG)
+                .setAction("UNDO", v -> new Thread(() -> {
+                    db.itemsDao().restoreItems(ids); // The shared snapshot reloads and the rows reappear
+                    AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_RESTORE, ids, null);
+                }).start())
+                .show();
+    }
+
     private void showToast(String message) {
         Toast toast = Toast.makeText(DatabaseViewActivity.this, message, Toast.LENGTH_SHORT);
         toast.show();
@@ -2,19 +2,24 @@ package com.CS360.stocksense;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.view.ViewTreeObserver;
+import android.widget.Toast;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.GridLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
 import com.CS360.stocksense.Database.AppDatabase;
 import com.CS360.stocksense.Database.Items;
-import java.util.Collections;
-import java.util.Comparator;
+import com.CS360.stocksense.Database.ItemsSnapshot;
 import java.util.List;
+import java.util.Map;
 
 public class InventoryGridViewActivity extends MainActivity {
 
     private RecyclerView recyclerView;
     private RecyclerGridViewAdapter adapter;
     private AppDatabase db;
+    private ItemsViewModel viewModel;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,55 +27,68 @@ public class InventoryGridViewActivity extends MainActivity {
         setContentView(R.layout.activity_inventory_grid_view);
 
         db = AppDatabase.getInstance(this);
+        viewModel = new ViewModelProvider(this).get(ItemsViewModel.class);
         recyclerView = findViewById(R.id.inventory_recycler_view);
 
         findViewById(R.id.nav_button2).setOnClickListener(v -> onNavButton2Click());
         findViewById(R.id.nav_button3).setOnClickListener(v -> onNavButton3Click());
 
-        loadData(); // Load data from the database
+        viewModel.getItems().observe(this, this::showData); // Redelivered after rotation without a query
+        StartupTracer.markPhase(StartupTracer.PHASE_GRID_CREATED);
     }
 
     @Override
     protected void onPause() {
         super.onPause();
+        if (adapter == null) {
+            return;
+        }
+        Map<Integer, Integer> deltas = adapter.takePendingDeltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
         new Thread(() -> {
-            List<Items> currentItems = adapter.getItemsList();
-            for (Items item : currentItems) {
-                db.itemsDao().update(item); // Update items in the database
+            // Apply relative changes so edits made elsewhere to the same items are not overwritten
+            Map<Integer, Integer> applied = db.itemsDao().adjustQuantities(deltas);
+            int rejected = 0;
+            for (Map.Entry<Integer, Integer> entry : deltas.entrySet()) {
+                if (entry.getValue() != 0 && !applied.containsKey(entry.getKey())) {
+                    rejected++;
+                }
+            }
+            if (rejected > 0) {
+                String message = rejected + " quantity changes not saved: item deleted or below its reserved units";
+                runOnUiThread(() -> Toast.makeText(getApplicationContext(), message, Toast.LENGTH_LONG).show());
             }
+            AuditLog.getInstance(this).recordQuantityChanges(applied); // Only what reached the database
         }).start();
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        loadData(); // Reload data when resuming activity
-    }
-
-    @Override
-    protected void onNewItemCreated() {
-        super.onNewItemCreated();
-        loadData(); // Reload data when a new item is created
-    }
-
-    private void loadData() {
-        new Thread(() -> {
-            List<Items> itemsList = db.itemsDao().getAllItems(); // Fetch all items from the database
-            sortData(itemsList); // Sort items
-            runOnUiThread(() -> {
-                if (adapter == null) {
-                    adapter = new RecyclerGridViewAdapter(itemsList, this);
-                    recyclerView.setLayoutManager(new GridLayoutManager(this, 2));
-                    recyclerView.setAdapter(adapter);
-                } else {
-                    adapter.updateData(itemsList); // Update adapter data
-                }
-            });
-        }).start();
+    private void showData(ItemsSnapshot snapshot) {
+        Trace.beginSection("InventoryGridViewActivity.showData");
+        List<Items> itemsList = snapshot.asList(viewModel.getRowsByName(snapshot)); // Sorted by name
+        if (adapter == null) {
+            adapter = new RecyclerGridViewAdapter(itemsList, this);
+            recyclerView.setLayoutManager(new GridLayoutManager(this, 2));
+            recyclerView.setAdapter(adapter);
+        } else {
+            adapter.updateData(itemsList); // Update adapter data
+        }
+        if (!itemsList.isEmpty()) {
+            StartupTracer.markPhase(StartupTracer.PHASE_FIRST_SNAPSHOT);
+            markFirstGridFrame();
+        }
+        Trace.endSection();
     }
 
-    private List<Items> sortData(List<Items> itemsList) {
-        Collections.sort(itemsList, Comparator.comparing(Items::getItemName)); // Sort items by name
-        return itemsList;
+    private void markFirstGridFrame() {
+        recyclerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                StartupTracer.markFirstGridFrame(); // No-op after the first time
+                return true;
+            }
+        });
     }
 }
@@ -1,28 +1,50 @@
 package com.CS360.stocksense;
 
+import android.net.Uri;
 import android.os.Bundle;
+import android.text.InputType;
 import android.util.Log;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
+import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.content.Intent;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.NavUtils;
 import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.AuditEvent;
 import com.CS360.stocksense.Database.Items;
+import com.CS360.stocksense.Database.ItemsDao;
+import com.CS360.stocksense.Database.ItemsRepository;
+import com.CS360.stocksense.Database.Lot;
+import com.google.android.material.snackbar.Snackbar;
+import com.google.android.material.textfield.TextInputEditText;
+import java.text.DateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 public class ItemDetailsActivity extends AppCompatActivity {
 
-    private TextView itemHeader;
+    private TextView itemHeader, itemForecast;
     private EditText itemQuantity, itemLocation, itemAlertLevel;
-    private Button saveButton, deleteButton;
+    private Button saveButton, deleteButton, photoButton, lotsButton;
+    private ImageView itemThumbnail;
     private AppDatabase db;
+    private ItemsRepository repository;
     private int itemId;
     private Items currentItem;
     private String sourceActivity;
+    private final ActivityResultLauncher<String[]> pickPhoto =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::onPhotoPicked);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,24 +52,31 @@ public class ItemDetailsActivity extends AppCompatActivity {
         setContentView(R.layout.activity_item_details);
 
         db = AppDatabase.getInstance(this);
+        repository = ItemsRepository.getInstance(this);
 
         itemHeader = findViewById(R.id.item_header);
+        itemForecast = findViewById(R.id.item_forecast);
         itemQuantity = findViewById(R.id.item_quantity);
         itemLocation = findViewById(R.id.item_location);
         saveButton = findViewById(R.id.save_button);
         deleteButton = findViewById(R.id.delete_button);
         itemAlertLevel = findViewById(R.id.item_alert_level);
+        itemThumbnail = findViewById(R.id.item_thumbnail);
+        photoButton = findViewById(R.id.photo_button);
+        lotsButton = findViewById(R.id.lots_button);
 
         sourceActivity = getIntent().getStringExtra("source_activity");
         getSupportActionBar().setDisplayHomeAsUpEnabled(true);
 
         itemId = getIntent().getIntExtra("item_id", -1);
         if (itemId != -1) {
-            loadItemDetails(itemId); // Load item details if itemId is valid
+            loadItemDetails(itemId, false); // Load item details if itemId is valid
         }
 
         saveButton.setOnClickListener(v -> onSaveButtonClick());
         deleteButton.setOnClickListener(v -> onDeleteButtonClick());
+        photoButton.setOnClickListener(v -> pickPhoto.launch(new String[]{"image/*"}));
+        lotsButton.setOnClickListener(v -> showLotsDialog());
     }
 
     @Override
@@ -62,15 +91,19 @@ public class ItemDetailsActivity extends AppCompatActivity {
         return true;
     }
 
-    private void loadItemDetails(int itemId) {
+    private void loadItemDetails(int itemId, boolean fromDatabase) {
         new Thread(() -> {
-            currentItem = db.itemsDao().getItemById(itemId); // Fetch item by id
+            // Use the shared snapshot unless we know it may lag behind the database
+            currentItem = fromDatabase ? db.itemsDao().getItemById(itemId) : repository.getItemById(itemId);
             runOnUiThread(() -> {
                 if (currentItem != null) {
                     itemHeader.setText(currentItem.getItemName());
                     itemQuantity.setText(String.valueOf(currentItem.getQuantity()));
                     itemLocation.setText(currentItem.getLocation());
                     itemAlertLevel.setText(String.valueOf(currentItem.getAlertLevel()));
+                    itemForecast.setText(forecastText(currentItem));
+                    ThumbnailLoader.getInstance(this).load(currentItem.getThumbnailUri(), itemThumbnail,
+                            getResources().getDimensionPixelSize(R.dimen.grid_thumbnail_size));
                 } else {
                     showToast("Item not found");
                     finish();
@@ -82,14 +115,34 @@ public class ItemDetailsActivity extends AppCompatActivity {
     private void onSaveButtonClick() {
         new Thread(() -> {
             try {
-                int currentQuantity = currentItem.getQuantity();
                 int newQuantity = Integer.parseInt(itemQuantity.getText().toString());
                 int alertLevel = Integer.parseInt(itemAlertLevel.getText().toString());
+                String location = itemLocation.getText().toString();
+                if (newQuantity < currentItem.getReserved()) { // The update rechecks this against the latest value
+                    runOnUiThread(() -> showToast(currentItem.getReserved() + " units are reserved; quantity cannot go below that"));
+                    return;
+                }
+
+                // Write only the changed columns, and only if nobody else changed the item since it was loaded
+                int result = db.itemsDao().updateChangedFields(currentItem, newQuantity, location, alertLevel);
+                if (result == ItemsDao.BELOW_RESERVED) { // Reserved since the check above; keep the edits for another try
+                    Items latest = db.itemsDao().getItemById(itemId);
+                    int reserved = latest != null ? latest.getReserved() : currentItem.getReserved();
+                    currentItem.setReserved(reserved);
+                    runOnUiThread(() -> showToast(reserved + " units are reserved; quantity cannot go below that"));
+                    return;
+                }
+                if (result == ItemsDao.CHANGED_ELSEWHERE) {
+                    runOnUiThread(() -> showToast("Item was changed elsewhere, reloaded latest values"));
+                    loadItemDetails(itemId, true);
+                    return;
+                }
 
-                currentItem.setQuantity(newQuantity);
-                currentItem.setLocation(itemLocation.getText().toString());
-                currentItem.setAlertLevel(alertLevel);
-                db.itemsDao().update(currentItem); // Update item in the database
+                AuditLog auditLog = AuditLog.getInstance(this);
+                auditLog.recordQuantityChange(itemId, newQuantity - currentItem.getQuantity());
+                if (!location.equals(currentItem.getLocation()) || alertLevel != currentItem.getAlertLevel()) {
+                    auditLog.recordItemChange(AuditEvent.ACTION_UPDATE, itemId, "location=" + location + ", alertLevel=" + alertLevel);
+                }
 
                 runOnUiThread(() -> showToast("Item updated successfully"));
                 NavUtils.navigateUpFromSameTask(this);
@@ -101,17 +154,137 @@ public class ItemDetailsActivity extends AppCompatActivity {
         }).start();
     }
 
+    private String forecastText(Items item) {
+        double days = item.getDaysUntilStockOut();
+        if (Double.isInfinite(days)) {
+            return "No recent usage";
+        }
+        return String.format(Locale.getDefault(), "%.1f units/day, out of stock in %.0f days",
+                item.getConsumptionRate(), days);
+    }
+
+    private void onPhotoPicked(Uri uri) {
+        if (uri == null || currentItem == null) {
+            return; // Picker was cancelled
+        }
+        // Keep read access across restarts so the grid can decode it later
+        getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        String thumbnailUri = uri.toString();
+        Items item = currentItem;
+        new Thread(() -> {
+            // Leave the inputs alone so unsaved edits survive; only the photo and version move on
+            int version = item.getVersion();
+            if (db.itemsDao().updateThumbnailUri(itemId, thumbnailUri, version) > 0) {
+                item.setVersion(version + 1);
+            } else {
+                db.itemsDao().updateThumbnailUri(itemId, thumbnailUri); // Changed elsewhere too; the next save reports that
+            }
+            item.setThumbnailUri(thumbnailUri);
+            runOnUiThread(() -> ThumbnailLoader.getInstance(this).load(thumbnailUri, itemThumbnail,
+                    getResources().getDimensionPixelSize(R.dimen.grid_thumbnail_size)));
+        }).start();
+    }
+
+    private void showLotsDialog() {
+        new Thread(() -> {
+            List<Lot> lots = db.lotsDao().getLotsFefo(itemId);
+            StringBuilder message = new StringBuilder();
+            DateFormat dateFormat = DateFormat.getDateInstance();
+            for (Lot lot : lots) {
+                message.append(lot.getQuantity()).append(" units, expires ")
+                        .append(dateFormat.format(new Date(lot.getExpiryDate()))).append('\n');
+            }
+            runOnUiThread(() -> new AlertDialog.Builder(this)
+                    .setTitle(R.string.lots_button_text)
+                    .setMessage(lots.isEmpty() ? "No lots recorded" : message.toString().trim())
+                    .setPositiveButton("Receive", (dialog, which) -> showReceiveLotDialog())
+                    .setNeutralButton("Pick", (dialog, which) -> showPickDialog())
+                    .setNegativeButton("Dispose Expired", (dialog, which) -> new Thread(() -> {
+                        int disposed = db.lotsDao().disposeExpired(itemId, System.currentTimeMillis());
+                        onLotsChanged(-disposed, disposed + " expired units disposed");
+                    }).start())
+                    .show());
+        }).start();
+    }
+
+    private void showReceiveLotDialog() {
+        View view = LayoutInflater.from(this).inflate(R.layout.dialog_receive_lot, null);
+        TextInputEditText quantityInput = view.findViewById(R.id.lot_quantity_input);
+        TextInputEditText expiryDaysInput = view.findViewById(R.id.lot_expiry_days_input);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Receive Lot")
+                .setView(view)
+                .setPositiveButton("Receive", (dialog, which) -> {
+                    try {
+                        int quantity = Integer.parseInt(quantityInput.getText().toString());
+                        int expiryDays = Integer.parseInt(expiryDaysInput.getText().toString());
+                        if (quantity <= 0) {
+                            showToast("Quantity must be positive");
+                            return;
+                        }
+                        long expiryDate = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(expiryDays);
+                        new Thread(() -> {
+                            db.lotsDao().receiveLot(itemId, quantity, expiryDate);
+                            onLotsChanged(quantity, quantity + " units received");
+                        }).start();
+                    } catch (NumberFormatException e) {
+                        showToast("Invalid number format");
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void showPickDialog() {
+        EditText input = new EditText(this);
+        input.setHint("Units to pick");
+        input.setInputType(InputType.TYPE_CLASS_NUMBER);
+
+        new AlertDialog.Builder(this)
+                .setTitle("Pick Units")
+                .setView(input)
+                .setPositiveButton("Pick", (dialog, which) -> {
+                    try {
+                        int requested = Integer.parseInt(input.getText().toString());
+                        new Thread(() -> {
+                            int taken = db.lotsDao().pickFefo(itemId, requested); // Capped at what is not reserved
+                            onLotsChanged(-taken, taken + " of " + requested + " units picked, first-expiring first");
+                        }).start();
+                    } catch (NumberFormatException e) {
+                        showToast("Invalid number format");
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    // Lots move the on-hand count and version; refresh those but leave the other unsaved inputs alone
+    private void onLotsChanged(int delta, String message) {
+        if (delta != 0) {
+            AuditLog.getInstance(this).recordQuantityChange(itemId, delta);
+        }
+        Items latest = db.itemsDao().getItemById(itemId);
+        runOnUiThread(() -> {
+            showToast(message);
+            if (latest != null) {
+                currentItem = latest;
+                itemQuantity.setText(String.valueOf(latest.getQuantity()));
+                itemForecast.setText(forecastText(latest));
+            }
+        });
+    }
+
     private void onDeleteButtonClick() {
         new AlertDialog.Builder(this)
                 .setTitle("Delete Confirmation")
                 .setMessage("Are you sure you want to delete this item?")
                 .setPositiveButton(android.R.string.yes, (dialog, which) -> {
+                    List<Integer> ids = Collections.singletonList(currentItem.getId());
                     new Thread(() -> {
-                        db.itemsDao().delete(currentItem); // Delete item from the database
-                        runOnUiThread(() -> {
-                            showToast("Item deleted successfully");
-                            finish();
-                        });
+                        db.itemsDao().softDeleteItems(ids, System.currentTimeMillis()); // Tombstone item, purged later in the background
+                        AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_DELETE, ids, null);
+                        runOnUiThread(() -> showUndoSnackbar(ids));
                     }).start();
                 })
                 .setNegativeButton(android.R.string.no, null)
@@ -119,6 +292,25 @@ public class ItemDetailsActivity extends AppCompatActivity {
                 .show();
     }
 
+    private void showUndoSnackbar(List<Integer> ids) {
+        // Stay on the screen while the undo is offered, then close
+        Snackbar.make(findViewById(android.R.id.content), "Item deleted", Snackbar.LENGTH_LONG)
+                .setAction("UNDO", v -> new Thread(() -> {
+                    db.itemsDao().restoreItems(ids);
+                    AuditLog.getInstance(this).recordItemChanges(AuditEvent.ACTION_RESTORE, ids, null);
+                    loadItemDetails(itemId, true);
+                }).start())
+                .addCallback(new Snackbar.Callback() {
+                    @Override
+                    public void onDismissed(Snackbar snackbar, int event) {
+                        if (event != DISMISS_EVENT_ACTION) {
+                            finish();
+                        }
+                    }
+                })
+                .show();
+    }
+
     private void showToast(String message) {
         Toast.makeText(ItemDetailsActivity.this, message, Toast.LENGTH_SHORT).show();
     }
@@ -0,0 +1,36 @@
+package com.CS360.stocksense;
+
+import android.app.Application;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import com.CS360.stocksense.Database.ItemsRepository;
+import com.CS360.stocksense.Database.ItemsSnapshot;
+
+public class ItemsViewModel extends AndroidViewModel {
+
+    private final ItemsRepository repository; // Shared across activities
+    private ItemsSnapshot sortedSnapshot; // Snapshot rowsByName was computed for
+    private int[] rowsByName; // Kept across configuration changes to avoid re-sorting
+
+    public ItemsViewModel(@NonNull Application application) {
+        super(application);
+        repository = ItemsRepository.getInstance(application);
+    }
+
+    public LiveData<ItemsSnapshot> getItems() {
+        return repository.getItems(); // Shared snapshot, reloaded only after writes
+    }
+
+    public ItemsRepository getRepository() {
+        return repository;
+    }
+
+    public int[] getRowsByName(ItemsSnapshot snapshot) {
+        if (snapshot != sortedSnapshot) { // Sort once per snapshot
+            rowsByName = snapshot.sort(snapshot.allRows(), ItemsSnapshot.Column.NAME, true);
+            sortedSnapshot = snapshot;
+        }
+        return rowsByName;
+    }
+}
@@ -5,6 +5,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
+import android.database.sqlite.SQLiteConstraintException;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
@@ -18,7 +19,9 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import androidx.tracing.Trace;
 import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.ItemsRepository;
 import com.CS360.stocksense.Database.User;
 import com.CS360.stocksense.Database.StarterData;
 import com.CS360.stocksense.Database.UserDao;
@@ -41,12 +44,15 @@ public class LoginActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTracer.markColdStart();
+        Trace.beginSection("LoginActivity.onCreate");
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
-        db = AppDatabase.getInstance(this);
+        db = AppDatabase.getAccountsInstance(this); // Users are the same whichever store is current
 
         StarterData.populateInitialData(this); // Populate initial data
+        ItemsRepository.getInstance(this).warmUp(); // Open the database and load items while credentials are typed
 
         usernameEditText = findViewById(R.id.username);
         passwordEditText = findViewById(R.id.password);
@@ -58,6 +64,8 @@ public class LoginActivity extends AppCompatActivity {
         registerButton.setOnClickListener(v -> onRegisterButtonClick());
 
         checkRememberedLogin();
+        StartupTracer.markPhase(StartupTracer.PHASE_LOGIN_CREATED);
+        Trace.endSection();
     }
 
     private void onLoginButtonClick() {
@@ -73,10 +81,14 @@ public class LoginActivity extends AppCompatActivity {
 
     private void validateUser(String username, String password, boolean rememberMe) {
         new Thread(() -> {
+            Trace.beginSection("LoginActivity.validateUser");
             User user = db.userDao().getUser(username, password);
             currentUser = user;
+            Trace.endSection();
             new Handler(Looper.getMainLooper()).post(() -> {
                 if (user != null) {
+                    SessionStore.startSession(this, user); // Remember who is logged in
+                    AuditLog.getInstance(this).recordLogin(user);
                     if (rememberMe) {
                         saveUserToPreferences(username, password);
                     } else {
@@ -216,7 +228,12 @@ public class LoginActivity extends AppCompatActivity {
         new Thread(() -> {
             UserDao userDao = db.userDao();
             User user = new User(username, password, "User", "0-000-000-000", false); // Default role is "User"
-            userDao.insert(user);
+            try {
+                userDao.insert(user);
+            } catch (SQLiteConstraintException e) { // Username is unique
+                new Handler(Looper.getMainLooper()).post(() -> showToast("Username is already taken"));
+                return;
+            }
             new Handler(Looper.getMainLooper()).post(() -> showToast("Registration successful!"));
         }).start();
     }
@@ -2,21 +2,41 @@ package com.CS360.stocksense;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.database.Cursor;
 import android.telephony.SmsManager;
 import androidx.annotation.NonNull;
+import androidx.work.Data;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
+import com.CS360.stocksense.Database.AlertRule;
+import com.CS360.stocksense.Database.AlertRuleEngine;
 import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.ConsumptionForecast;
+import com.CS360.stocksense.Database.ExpiringLot;
 import com.CS360.stocksense.Database.Items;
 import com.CS360.stocksense.Database.ItemsDao;
-import com.CS360.stocksense.Database.User;
-import com.CS360.stocksense.Database.UserDao;
+import com.CS360.stocksense.Database.Lot;
+import com.CS360.stocksense.Database.LotsDao;
+import com.CS360.stocksense.Database.StoreRegistry;
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class LowInventoryWorker extends Worker {
 
-    private static final long ALERT_INTERVAL = TimeUnit.HOURS.toMillis(24); // Alert interval of 24 hours
+    private static final long ALERT_INTERVAL = TimeUnit.HOURS.toMillis(24); // Alert interval of 24 hours for forecasts and lots
+    private static final long FORECAST_HORIZON = TimeUnit.DAYS.toMillis(3); // Warn three days before a forecast stock-out
+    private static final long DAY_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long EXPIRY_WINDOW = TimeUnit.DAYS.toMillis(7); // Warn about lots expiring within a week
+    private static final int SCAN_CHUNK_SIZE = 5000; // Item ids scanned between stop checks and checkpoints
+    private static final String CHECKPOINT_FILE = "com.CS360.stocksense.LOW_INVENTORY_CHECKPOINT"; // Last scanned item id per store
+    private static final int SCAN_START = Integer.MIN_VALUE; // Ids are typed in by users, so 0 and negatives are valid
+    public static final String PROGRESS_STORE = "store";
+    public static final String PROGRESS_LAST_ID = "lastId";
+
+    private List<String> recipients; // Per-run recipient cache
 
     public LowInventoryWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
@@ -25,47 +45,125 @@ public class LowInventoryWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
-        AppDatabase db = AppDatabase.getInstance(getApplicationContext());
-        ItemsDao itemsDao = db.itemsDao();
-
-        List<Items> itemsList = itemsDao.getAllItems(); // Get all items from the database
+        StoreRegistry registry = StoreRegistry.getInstance(getApplicationContext());
+        SharedPreferences checkpoints = getApplicationContext().getSharedPreferences(CHECKPOINT_FILE, Context.MODE_PRIVATE);
         long currentTime = System.currentTimeMillis(); // Get current time
 
-        for (Items item : itemsList) {
-            if (item.isLowInventory()) { // Check if the item has low inventory
-                long lastAlertTime = item.getLastAlertTimestamp();
-                if (currentTime - lastAlertTime >= ALERT_INTERVAL) { // Check if it's time to send an alert
-                    sendSmsAlert(item); // Send SMS alert
-                    item.setLastAlertTimestamp(currentTime); // Update last alert timestamp
-                    itemsDao.update(item); // Update item in the database
+        for (String store : registry.getStores()) { // Check every store in this run
+            if (isStopped()) {
+                break; // Checkpoints are saved; the next run resumes from them
+            }
+            AppDatabase db = registry.acquire(store); // Keep it open while we use it
+            try {
+                // All of the store's alert rules are evaluated by one query per chunk; their quiet hours hold every kind of alert
+                AlertRuleEngine rules = AlertRuleEngine.compile(db.alertRulesDao().getEnabledRules(), currentTime);
+                if (!checkStore(store, db, rules, checkpoints, currentTime)) {
+                    break;
                 }
+                checkForecasts(store, db.itemsDao(), rules, currentTime);
+                checkExpiringLots(store, db.lotsDao(), rules, currentTime);
+                checkpoints.edit().remove(store).apply(); // Store done, next run starts from the first item
+            } finally {
+                registry.release(store);
             }
         }
         return Result.success();
     }
 
-    private void sendSmsAlert(Items item) {
-        String phoneNumber = getUserPhoneNumber(); // Get user's phone number
-        if (phoneNumber != null && !phoneNumber.isEmpty()) {
-            String message = "Alert: Item " + item.getItemName() + " is low on inventory.";
-            SmsManager smsManager = SmsManager.getDefault();
-            smsManager.sendTextMessage(phoneNumber, null, message, null, null); // Send SMS message
+    // Scan items in id-ordered chunks, resuming after the store's checkpoint; false if the worker was stopped
+    private boolean checkStore(String store, AppDatabase db, AlertRuleEngine rules, SharedPreferences checkpoints, long currentTime) {
+        ItemsDao itemsDao = db.itemsDao();
+        int lastId = checkpoints.getInt(store, SCAN_START);
+        Integer chunkEnd;
+        while ((chunkEnd = itemsDao.getChunkEnd(lastId, SCAN_CHUNK_SIZE)) != null) {
+            if (isStopped()) {
+                return false;
+            }
+
+            List<Integer> alertedIds = new ArrayList<>();
+            try (Cursor cursor = db.alertRulesDao().query(rules.chunkQuery(lastId, chunkEnd))) {
+                while (cursor.moveToNext()) {
+                    AlertRule rule = rules.getRule(cursor.getInt(AlertRuleEngine.COLUMN_RULE));
+                    String message = "Alert: Item " + cursor.getString(AlertRuleEngine.COLUMN_NAME) + " is low on inventory";
+                    if (rule.getId() != 0) {
+                        message += " (" + rule.getName() + ")"; // Name the store's own rule that fired
+                    }
+                    sendSms(store, message); // Send SMS alert
+                    alertedIds.add(cursor.getInt(AlertRuleEngine.COLUMN_ID));
+                }
+            }
+            if (!alertedIds.isEmpty()) {
+                itemsDao.updateLastAlertTimestamps(alertedIds, currentTime); // Update only the alert timestamps
+            }
+
+            lastId = chunkEnd;
+            checkpoints.edit().putInt(store, lastId).apply(); // Resume point if we are stopped after this chunk
+            setProgressAsync(new Data.Builder()
+                    .putString(PROGRESS_STORE, store)
+                    .putInt(PROGRESS_LAST_ID, lastId)
+                    .build());
+        }
+        return true;
+    }
+
+    private void checkForecasts(String store, ItemsDao itemsDao, AlertRuleEngine rules, long currentTime) {
+        // Range scan on the stockoutAt index; forecasts keep their own cooldown, apart from low-stock alerts
+        for (Items item : itemsDao.getItemsRunningOutBy(currentTime + FORECAST_HORIZON, currentTime - ALERT_INTERVAL)) {
+            // stockoutAt is set at the last quantity change; an idle item has slowed since then
+            double forecastDays = ConsumptionForecast.daysUntilStockOut(item, currentTime);
+            if (Double.isInfinite(forecastDays) || forecastDays * DAY_MS > FORECAST_HORIZON) {
+                // Move the stored date forward so the index scan stops returning the item
+                itemsDao.updateStockoutAt(item.getId(), Double.isInfinite(forecastDays) ? null : currentTime + (long) (forecastDays * DAY_MS));
+                continue;
+            }
+            if (rules.isQuietFor(item.getLocation(), item.getItemName())) {
+                continue; // Not recorded as sent, so a run after quiet hours sends it
+            }
+            long days = Math.round(forecastDays);
+            sendSms(store, "Alert: Item " + item.getItemName() + " is forecast to run out in " + days + " days");
+            itemsDao.updateLastForecastAlertAt(item.getId(), currentTime);
         }
     }
 
-    private String getUserPhoneNumber() {
-        SharedPreferences preferences = getApplicationContext().getSharedPreferences("com.CS360.stocksense.PREFERENCES_FILE", Context.MODE_PRIVATE);
-        String savedUsername = preferences.getString("KEY_USERNAME", null);
-        String savedPassword = preferences.getString("KEY_PASSWORD", null);
+    private void checkExpiringLots(String store, LotsDao lotsDao, AlertRuleEngine rules, long currentTime) {
+        // Indexed range scan over expiryDate instead of a pass over every lot
+        List<ExpiringLot> expiringLots = lotsDao.getExpiringLots(currentTime, currentTime + EXPIRY_WINDOW, currentTime - ALERT_INTERVAL);
+        if (expiringLots.isEmpty()) {
+            return;
+        }
 
-        if (savedUsername != null) {
-            AppDatabase db = AppDatabase.getInstance(getApplicationContext());
-            UserDao userDao = db.userDao();
-            User user = userDao.getUser(savedUsername, savedPassword); // Get user from the database
-            if (user != null && user.isEnrolledInSMS()) {
-                return user.getPhoneNumber(); // Return user's phone number if enrolled in SMS alerts
+        DateFormat dateFormat = DateFormat.getDateInstance();
+        List<Long> alertedLotIds = new ArrayList<>(expiringLots.size());
+        for (ExpiringLot expiringLot : expiringLots) {
+            if (rules.isQuietFor(expiringLot.getItemLocation(), expiringLot.getItemName())) {
+                continue; // Held until quiet hours end
             }
+            Lot lot = expiringLot.getLot();
+            String verb = lot.getExpiryDate() <= currentTime ? " expired on " : " expires on ";
+            sendSms(store, "Alert: " + lot.getQuantity() + " units of " + expiringLot.getItemName()
+                    + verb + dateFormat.format(new Date(lot.getExpiryDate())));
+            alertedLotIds.add(lot.getId());
+        }
+        lotsDao.markAlerted(alertedLotIds, currentTime); // Record all alerts in one transaction
+    }
+
+    private void sendSms(String store, String message) {
+        List<String> phoneNumbers = getRecipients();
+        if (phoneNumbers.isEmpty()) {
+            return;
+        }
+        message += StoreRegistry.DEFAULT_STORE.equals(store) ? "." : " at store " + store + ".";
+        SmsManager smsManager = SmsManager.getDefault();
+        for (String phoneNumber : phoneNumbers) {
+            smsManager.sendTextMessage(phoneNumber, null, message, null, null); // Send SMS message
+        }
+    }
+
+    // Phone numbers of SMS-enrolled users, who get alerts for every store; queried once per run
+    private List<String> getRecipients() {
+        if (recipients == null) {
+            recipients = AppDatabase.getAccountsInstance(getApplicationContext()).userDao().getSmsRecipients();
         }
-        return null;
+        return recipients;
     }
 }
@@ -1,20 +1,31 @@
 package com.CS360.stocksense;
 
 import android.content.Intent;
+import android.database.sqlite.SQLiteConstraintException;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
+import android.widget.EditText;
 import android.widget.Button;
 import android.widget.Toast;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
 import androidx.work.PeriodicWorkRequest;
 import androidx.work.WorkManager;
 import androidx.work.WorkRequest;
 import com.CS360.stocksense.Database.AppDatabase;
+import com.CS360.stocksense.Database.AuditEvent;
 import com.CS360.stocksense.Database.Items;
+import com.CS360.stocksense.Database.StoreRegistry;
 import com.google.android.material.textfield.TextInputEditText;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class MainActivity extends AppCompatActivity {
@@ -27,12 +38,18 @@ public class MainActivity extends AppCompatActivity {
         setContentView(R.layout.activity_main);
 
         db = AppDatabase.getInstance(this); // Initialize database instance
+        if (getSupportActionBar() != null) {
+            getSupportActionBar().setSubtitle(StoreRegistry.getInstance(this).getCurrentStore()); // Show current store
+        }
 
         findViewById(R.id.nav_button1).setOnClickListener(v -> onNavButton1Click()); // Set click listener for button 1
         findViewById(R.id.nav_button2).setOnClickListener(v -> onNavButton2Click()); // Set click listener for button 2
         findViewById(R.id.nav_button3).setOnClickListener(v -> onNavButton3Click()); // Set click listener for button 3
 
         setupLowInventoryWorker(); // Setup worker for low inventory checks
+        setupDatabaseMaintenanceWorker(); // Setup worker for database upkeep
+        setupDailyRollupWorker(); // Setup worker for quantity trend rollups
+        setupBackfillWorker(); // Finish data work queued by schema migrations
     }
 
     private void setupLowInventoryWorker() {
@@ -42,6 +59,109 @@ public class MainActivity extends AppCompatActivity {
         WorkManager.getInstance(this).enqueue(workRequest);
     }
 
+    private void setupDatabaseMaintenanceWorker() {
+        // Run daily, only while the device is idle and has battery to spare
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresDeviceIdle(true)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest workRequest = new PeriodicWorkRequest.Builder(DatabaseMaintenanceWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(this).enqueueUniquePeriodicWork("database_maintenance",
+                ExistingPeriodicWorkPolicy.KEEP, workRequest);
+    }
+
+    private void setupDailyRollupWorker() {
+        // Record one quantity sample per item per day for trend charts
+        PeriodicWorkRequest workRequest = new PeriodicWorkRequest.Builder(DailyRollupWorker.class, 1, TimeUnit.DAYS)
+                .build();
+        WorkManager.getInstance(this).enqueueUniquePeriodicWork("daily_rollup",
+                ExistingPeriodicWorkPolicy.KEEP, workRequest);
+    }
+
+    private void setupBackfillWorker() {
+        // One-off run per launch; returns at once when no migration has queued work
+        OneTimeWorkRequest workRequest = new OneTimeWorkRequest.Builder(BackfillWorker.class).build();
+        WorkManager.getInstance(this).enqueueUniqueWork("schema_backfill", ExistingWorkPolicy.KEEP, workRequest);
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.main_menu, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_switch_store) {
+            showSwitchStoreDialog();
+            return true;
+        }
+        if (item.getItemId() == R.id.action_cycle_count) {
+            startActivity(new Intent(this, CycleCountActivity.class));
+            return true;
+        }
+        if (item.getItemId() == R.id.action_log_out) {
+            SessionStore.endSession(this); // Stop attributing changes to this user
+            Intent intent = new Intent(this, LoginActivity.class);
+            intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK); // No way back without logging in
+            startActivity(intent);
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    private void showSwitchStoreDialog() {
+        StoreRegistry registry = StoreRegistry.getInstance(this);
+        List<String> stores = registry.getStores();
+        String[] choices = stores.toArray(new String[stores.size() + 1]);
+        choices[stores.size()] = getString(R.string.add_store);
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.switch_store)
+                .setItems(choices, (dialog, which) -> {
+                    if (which == stores.size()) {
+                        showAddStoreDialog();
+                    } else {
+                        switchStore(stores.get(which));
+                    }
+                })
+                .show();
+    }
+
+    private void showAddStoreDialog() {
+        EditText input = new EditText(this);
+        input.setHint("Store Name");
+
+        new AlertDialog.Builder(this)
+                .setTitle(R.string.add_store)
+                .setView(input)
+                .setPositiveButton("Create", (dialog, which) -> {
+                    String store = StoreRegistry.getInstance(this).addStore(input.getText().toString());
+                    if (store == null) {
+                        showToast("Store name is empty or already exists");
+                    } else {
+                        switchStore(store);
+                    }
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void switchStore(String store) {
+        StoreRegistry registry = StoreRegistry.getInstance(this);
+        if (store.equals(registry.getCurrentStore())) {
+            return;
+        }
+        registry.switchStore(store);
+        // Restart the screens so none of them keep the previous store's database
+        Intent intent = new Intent(this, InventoryGridViewActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        startActivity(intent);
+        Log.d("MainActivity", "Switched to store " + store);
+    }
+
     protected void onNavButton1Click() {
         // Navigate to InventoryGridViewActivity
         Intent intent = new Intent(this, InventoryGridViewActivity.class);
@@ -115,7 +235,13 @@ public class MainActivity extends AppCompatActivity {
     private void createNewItem(int id, String name, int quantity, String location, int alertLevel) {
         new Thread(() -> {
             Items newItem = new Items(id, name, quantity, location, alertLevel);
-            db.itemsDao().insert(newItem); // Insert new item into the database
+            try {
+                db.itemsDao().insertReplacingTombstone(newItem); // A deleted item's id can be reused straight away
+            } catch (SQLiteConstraintException e) { // A live item already has this id
+                runOnUiThread(() -> showToast("An item with ID " + id + " already exists"));
+                return;
+            }
+            AuditLog.getInstance(this).recordItemChange(AuditEvent.ACTION_CREATE, id, "quantity=" + quantity);
             runOnUiThread(() -> {
                 onNewItemCreated(); // Notify that a new item has been created
                 showToast("Item created successfully"); // Show success message
@@ -6,21 +6,29 @@ import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.CS360.stocksense.Database.Items;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RecyclerGridViewAdapter extends RecyclerView.Adapter<RecyclerGridViewAdapter.ViewHolder> {
 
     private List<Items> itemsList; // List of items to display
     private int itemid;
     private Context context; // Context for launching activities
+    private Map<Integer, Integer> pendingDeltas = new HashMap<>(); // Unsaved quantity changes by item id
+    private final ThumbnailLoader thumbnailLoader; // Off-thread, cached thumbnail decoding
+    private final int thumbnailSize; // Cell image size in pixels
 
     public RecyclerGridViewAdapter(List<Items> itemsList, Context context) {
         this.itemsList = itemsList;
         this.context = context;
+        this.thumbnailLoader = ThumbnailLoader.getInstance(context);
+        this.thumbnailSize = context.getResources().getDimensionPixelSize(R.dimen.grid_thumbnail_size);
     }
 
     @NonNull
@@ -39,14 +47,17 @@ public class RecyclerGridViewAdapter extends RecyclerView.Adapter<RecyclerGridVi
         holder.itemName.setText(item.getItemName());
         holder.itemQuantity.setText("Q: " + item.getQuantity());
         holder.itemLocation.setText(item.getLocation());
+        thumbnailLoader.load(item.getThumbnailUri(), holder.itemThumbnail, thumbnailSize); // Decoded off the main thread
 
         holder.incrementButton.setOnClickListener(v -> {
             item.setQuantity(item.getQuantity() + 1); // Increment item quantity
+            recordDelta(item.getId(), 1);
             notifyItemChanged(position); // Notify adapter about item change
         });
 
         holder.decrementButton.setOnClickListener(v -> {
             item.setQuantity(item.getQuantity() - 1); // Decrement item quantity
+            recordDelta(item.getId(), -1);
             notifyItemChanged(position); // Notify adapter about item change
         });
 
@@ -59,6 +70,13 @@ public class RecyclerGridViewAdapter extends RecyclerView.Adapter<RecyclerGridVi
         });
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        thumbnailLoader.cancel(holder.itemThumbnail); // Drop decodes for cells that scrolled away
+        holder.itemThumbnail.setImageDrawable(null);
+    }
+
     @Override
     public int getItemCount() {
         return itemsList.size(); // Return the total number of items
@@ -70,12 +88,26 @@ public class RecyclerGridViewAdapter extends RecyclerView.Adapter<RecyclerGridVi
         notifyDataSetChanged();
     }
 
+    private void recordDelta(int itemId, int delta) {
+        Integer current = pendingDeltas.get(itemId);
+        pendingDeltas.put(itemId, current == null ? delta : current + delta);
+    }
+
+    public Map<Integer, Integer> takePendingDeltas() {
+        // Hand off unsaved quantity changes and start collecting a fresh set
+        Map<Integer, Integer> deltas = pendingDeltas;
+        pendingDeltas = new HashMap<>();
+        return deltas;
+    }
+
     public static class ViewHolder extends RecyclerView.ViewHolder {
         TextView itemName, itemQuantity, itemLocation; // Item details
+        ImageView itemThumbnail; // Item photo
         Button incrementButton, decrementButton; // Buttons for quantity control
 
         public ViewHolder(View itemView) {
             super(itemView);
+            itemThumbnail = itemView.findViewById(R.id.item_thumbnail);
             itemName = itemView.findViewById(R.id.item_name);
             itemQuantity = itemView.findViewById(R.id.item_quantity);
             itemLocation = itemView.findViewById(R.id.item_location);
@@ -10,7 +10,10 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.CS360.stocksense.Database.Items;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class RecyclerListViewAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
 
@@ -18,14 +21,22 @@ public class RecyclerListViewAdapter extends RecyclerView.Adapter<RecyclerView.V
     private static final int VIEW_TYPE_ITEM = 1; // View type for items
     private List<Items> itemsList; // List of items to display
     private OnDeleteClickListener onDeleteClickListener; // Listener for delete button click
+    private OnSelectionChangedListener onSelectionChangedListener; // Listener for multi-select changes
+    private final Set<Integer> selectedIds = new HashSet<>(); // Ids of items selected for bulk actions
 
     public interface OnDeleteClickListener {
         void onDeleteClick(Items item); // Interface for delete click listener
     }
 
-    public RecyclerListViewAdapter(List<Items> itemsList, OnDeleteClickListener onDeleteClickListener) {
+    public interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount); // Interface for selection change listener
+    }
+
+    public RecyclerListViewAdapter(List<Items> itemsList, OnDeleteClickListener onDeleteClickListener,
+                                   OnSelectionChangedListener onSelectionChangedListener) {
         this.itemsList = itemsList;
         this.onDeleteClickListener = onDeleteClickListener;
+        this.onSelectionChangedListener = onSelectionChangedListener;
     }
 
     @Override
@@ -59,10 +70,20 @@ public class RecyclerListViewAdapter extends RecyclerView.Adapter<RecyclerView.V
             itemHolder.itemName.setText(item.getItemName());
             itemHolder.itemQuantity.setText(String.valueOf(item.getQuantity()));
             itemHolder.itemLocation.setText(item.getLocation());
+            itemHolder.itemView.setAlpha(selectedIds.contains(item.getId()) ? 0.5f : 1f); // Dim selected rows
 
             itemHolder.deleteButton.setOnClickListener(v -> onDeleteClickListener.onDeleteClick(item)); // Set delete button click listener
 
+            itemHolder.itemView.setOnLongClickListener(v -> {
+                toggleSelection(item, holder.getAdapterPosition()); // Long press starts or extends a selection
+                return true;
+            });
+
             itemHolder.itemView.setOnClickListener(v -> {
+                if (!selectedIds.isEmpty()) {
+                    toggleSelection(item, holder.getAdapterPosition()); // Taps toggle selection while selecting
+                    return;
+                }
                 // Launch ItemDetailsActivity with item details
                 Intent intent = new Intent(holder.itemView.getContext(), ItemDetailsActivity.class);
                 intent.putExtra("item_id", item.getId());
@@ -85,6 +106,74 @@ public class RecyclerListViewAdapter extends RecyclerView.Adapter<RecyclerView.V
         }
     }
 
+    public void updateData(List<Items> newItemsList) {
+        this.itemsList = newItemsList;
+        Set<Integer> presentIds = new HashSet<>(newItemsList.size());
+        for (Items item : newItemsList) {
+            presentIds.add(item.getId());
+        }
+        if (selectedIds.retainAll(presentIds)) { // Drop selections for items that no longer exist
+            onSelectionChangedListener.onSelectionChanged(selectedIds.size());
+        }
+        notifyDataSetChanged();
+    }
+
+    public void removeItems(Set<Integer> ids) {
+        List<Items> remaining = new ArrayList<>(itemsList.size());
+        for (Items item : itemsList) { // Single pass instead of an indexOf per removed item
+            if (!ids.contains(item.getId())) {
+                remaining.add(item);
+            }
+        }
+        itemsList = remaining;
+        resetSelection();
+        notifyDataSetChanged(); // Update the list in one batch
+    }
+
+    public void updateLocations(Set<Integer> ids, String location) {
+        for (Items item : itemsList) {
+            if (ids.contains(item.getId())) {
+                item.setLocation(location);
+            }
+        }
+        resetSelection();
+        notifyDataSetChanged();
+    }
+
+    public void updateAlertLevels(Set<Integer> ids, int alertLevel) {
+        for (Items item : itemsList) {
+            if (ids.contains(item.getId())) {
+                item.setAlertLevel(alertLevel);
+            }
+        }
+        resetSelection();
+        notifyDataSetChanged();
+    }
+
+    public Set<Integer> getSelectedIds() {
+        return new HashSet<>(selectedIds); // Copy so callers can use it off the UI thread
+    }
+
+    public void clearSelection() {
+        if (!selectedIds.isEmpty()) {
+            resetSelection();
+            notifyDataSetChanged();
+        }
+    }
+
+    private void resetSelection() {
+        selectedIds.clear();
+        onSelectionChangedListener.onSelectionChanged(0);
+    }
+
+    private void toggleSelection(Items item, int position) {
+        if (!selectedIds.remove(item.getId())) {
+            selectedIds.add(item.getId());
+        }
+        notifyItemChanged(position);
+        onSelectionChangedListener.onSelectionChanged(selectedIds.size());
+    }
+
     static class HeaderViewHolder extends RecyclerView.ViewHolder {
         public HeaderViewHolder(@NonNull View itemView) {
             super(itemView); // ViewHolder for header
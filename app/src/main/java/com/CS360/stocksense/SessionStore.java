@@ -0,0 +1,33 @@
+package com.CS360.stocksense;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import com.CS360.stocksense.Database.User;
+
+public class SessionStore {
+
+    public static final int NO_USER = -1;
+    private static final String PREFERENCES_FILE = "com.CS360.stocksense.SESSION_FILE";
+    private static final String KEY_USER_ID = "KEY_USER_ID";
+
+    // Remember the logged-in user; called after a successful login
+    public static void startSession(Context context, User user) {
+        preferences(context).edit()
+                .putInt(KEY_USER_ID, user.getId())
+                .apply();
+    }
+
+    // Forget the logged-in user; later audit events are attributed to NO_USER until the next login
+    public static void endSession(Context context) {
+        preferences(context).edit().clear().apply();
+    }
+
+    // Id of the logged-in user, or NO_USER
+    public static int getUserId(Context context) {
+        return preferences(context).getInt(KEY_USER_ID, NO_USER);
+    }
+
+    private static SharedPreferences preferences(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFERENCES_FILE, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,72 @@
+package com.CS360.stocksense;
+
+import android.util.Log;
+import androidx.tracing.Trace;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Measures cold start from LoginActivity.onCreate to the first populated grid frame, with the phases
+// reached on the way. Shows up as the async "cold_start" section in system traces and is logged under StartupTracer.
+public class StartupTracer {
+
+    private static final String TAG = "StartupTracer";
+    private static final String COLD_START_SECTION = "cold_start";
+    private static final int COLD_START_COOKIE = 1;
+
+    public static final String PHASE_LOGIN_CREATED = "login_created";
+    public static final String PHASE_GRID_CREATED = "grid_created";
+    public static final String PHASE_FIRST_SNAPSHOT = "first_snapshot";
+    public static final String PHASE_FIRST_GRID_FRAME = "first_grid_frame";
+
+    private static long coldStartNanos = -1;
+    private static long firstGridFrameNanos = -1;
+    private static final Map<String, Long> phases = new LinkedHashMap<>(); // Phase to ms after cold start, in the order reached
+
+    // Called from LoginActivity.onCreate; only the first call per process counts
+    public static synchronized void markColdStart() {
+        if (coldStartNanos >= 0) {
+            return;
+        }
+        coldStartNanos = System.nanoTime();
+        Trace.beginAsyncSection(COLD_START_SECTION, COLD_START_COOKIE);
+    }
+
+    // Called when the grid first draws with items
+    public static synchronized void markFirstGridFrame() {
+        if (coldStartNanos < 0 || firstGridFrameNanos >= 0) {
+            return;
+        }
+        firstGridFrameNanos = System.nanoTime();
+        phases.put(PHASE_FIRST_GRID_FRAME, getTimeToFirstGridFrameMs());
+        Trace.endAsyncSection(COLD_START_SECTION, COLD_START_COOKIE);
+        Log.i(TAG, "Cold start to first grid frame: " + getTimeToFirstGridFrameMs() + " ms, phases " + phases);
+    }
+
+    // Record the first time a startup phase is reached; ignored outside a cold start
+    public static synchronized void markPhase(String phase) {
+        if (coldStartNanos < 0 || firstGridFrameNanos >= 0 || phases.containsKey(phase)) {
+            return;
+        }
+        phases.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - coldStartNanos));
+    }
+
+    // Phases reached so far, in order, with their ms after cold start
+    public static synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    // Milliseconds from cold start to first grid frame, or -1 if not reached yet
+    public static synchronized long getTimeToFirstGridFrameMs() {
+        if (coldStartNanos < 0 || firstGridFrameNanos < 0) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(firstGridFrameNanos - coldStartNanos);
+    }
+
+    static synchronized void reset() {
+        coldStartNanos = -1;
+        firstGridFrameNanos = -1;
+        phases.clear();
+    }
+}
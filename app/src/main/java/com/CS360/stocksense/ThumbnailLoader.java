@@ -0,0 +1,230 @@
+package com.CS360.stocksense;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ThumbnailLoader {
+
+    private static final String TAG = "ThumbnailLoader";
+    private static final long DISK_CACHE_MAX_BYTES = 50L * 1024 * 1024; // 50 MB of downsampled thumbnails
+    private static final int DISK_TRIM_INTERVAL = 32; // Writes between disk cache size checks
+    private static final String TEMP_SUFFIX = ".tmp"; // Thumbnails still being written
+
+    private static ThumbnailLoader instance; // Singleton instance
+
+    private final ContentResolver contentResolver;
+    private final File diskCacheDir;
+    private final LruCache<String, Bitmap> memoryCache; // Sized in KB of decoded bitmap memory
+    private final ExecutorService executor = Executors.newFixedThreadPool(2); // Decode threads
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Object diskLock = new Object();
+    private int writesSinceTrim;
+
+    // Get the loader instance
+    public static synchronized ThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ThumbnailLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ThumbnailLoader(Context context) {
+        contentResolver = context.getContentResolver();
+        diskCacheDir = new File(context.getCacheDir(), "thumbnails");
+        diskCacheDir.mkdirs();
+
+        int maxKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8); // Use 1/8 of the heap for thumbnails
+        memoryCache = new LruCache<String, Bitmap>(maxKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+    }
+
+    // Load a thumbnail no larger than size x size pixels into target, replacing any pending request
+    public void load(String uri, ImageView target, int size) {
+        cancel(target);
+        if (uri == null || uri.isEmpty()) {
+            target.setImageDrawable(null);
+            return;
+        }
+
+        String key = cacheKey(uri, size);
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            target.setImageBitmap(cached); // Memory hit, no thread hop
+            return;
+        }
+
+        target.setImageDrawable(null);
+        target.setTag(R.id.thumbnail_key, key);
+        Future<?> request = executor.submit(() -> {
+            Bitmap bitmap = readFromDisk(key);
+            if (bitmap == null) {
+                bitmap = decodeSampled(uri, size);
+                if (bitmap == null || Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                writeToDisk(key, bitmap);
+            }
+            memoryCache.put(key, bitmap);
+
+            Bitmap result = bitmap;
+            mainHandler.post(() -> {
+                if (key.equals(target.getTag(R.id.thumbnail_key))) { // Skip if the view was rebound meanwhile
+                    target.setImageBitmap(result);
+                    target.setTag(R.id.thumbnail_request, null);
+                }
+            });
+        });
+        target.setTag(R.id.thumbnail_request, request);
+    }
+
+    // Cancel the pending request for target, e.g. when its ViewHolder is recycled
+    public void cancel(ImageView target) {
+        Future<?> request = (Future<?>) target.getTag(R.id.thumbnail_request);
+        if (request != null) {
+            request.cancel(true);
+        }
+        target.setTag(R.id.thumbnail_request, null);
+        target.setTag(R.id.thumbnail_key, null);
+    }
+
+    private Bitmap decodeSampled(String uri, int size) {
+        try {
+            // First pass reads only the image bounds
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            try (InputStream in = contentResolver.openInputStream(Uri.parse(uri))) {
+                BitmapFactory.decodeStream(in, null, options);
+            }
+            if (options.outWidth <= 0 || options.outHeight <= 0) {
+                return null;
+            }
+
+            // Second pass decodes at the largest power-of-two reduction that still covers the cell
+            options.inSampleSize = sampleSize(options.outWidth, options.outHeight, size);
+            options.inJustDecodeBounds = false;
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+            Bitmap decoded;
+            try (InputStream in = contentResolver.openInputStream(Uri.parse(uri))) {
+                decoded = BitmapFactory.decodeStream(in, null, options);
+            }
+            if (decoded == null) {
+                return null;
+            }
+
+            float scale = (float) size / Math.max(decoded.getWidth(), decoded.getHeight());
+            if (scale >= 1f) {
+                return decoded;
+            }
+            Bitmap scaled = Bitmap.createScaledBitmap(decoded,
+                    Math.max(1, Math.round(decoded.getWidth() * scale)),
+                    Math.max(1, Math.round(decoded.getHeight() * scale)), true);
+            if (scaled != decoded) {
+                decoded.recycle();
+            }
+            return scaled;
+        } catch (IOException | SecurityException e) {
+            Log.w(TAG, "Could not decode " + uri, e);
+            return null;
+        }
+    }
+
+    static int sampleSize(int width, int height, int size) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= size && height / (sampleSize * 2) >= size) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private Bitmap readFromDisk(String key) {
+        File file = new File(diskCacheDir, key);
+        if (!file.exists()) {
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis()); // Mark as recently used for trimming
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // Same footprint as a fresh decode
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    private void writeToDisk(String key, Bitmap bitmap) {
+        File file = new File(diskCacheDir, key);
+        File temp = new File(diskCacheDir, key + TEMP_SUFFIX);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, 85, out);
+        } catch (IOException e) {
+            Log.w(TAG, "Could not cache thumbnail " + key, e);
+            temp.delete();
+            return;
+        }
+        temp.renameTo(file); // Readers never see a partially written file
+
+        synchronized (diskLock) {
+            if (++writesSinceTrim >= DISK_TRIM_INTERVAL) {
+                writesSinceTrim = 0;
+                trimDiskCache();
+            }
+        }
+    }
+
+    // Delete least recently used files until the cache fits its budget; files still being written are left alone
+    private void trimDiskCache() {
+        File[] files = diskCacheDir.listFiles((File file) -> !file.getName().endsWith(TEMP_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= DISK_CACHE_MAX_BYTES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= DISK_CACHE_MAX_BYTES) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static String cacheKey(String uri, int size) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest((uri + "@" + size).getBytes(StandardCharsets.UTF_8));
+            return String.format("%032x", new BigInteger(1, hash));
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString((uri + "@" + size).hashCode());
+        }
+    }
+}
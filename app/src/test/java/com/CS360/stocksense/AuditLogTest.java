@@ -0,0 +1,77 @@
+package com.CS360.stocksense;
+
+import static com.CS360.stocksense.Database.TestThreads.callOffMainThread;
+import static org.junit.Assert.assertEquals;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import com.CS360.stocksense.Database.AuditEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Buffering in AuditLog: a full buffer handed to the flusher and the partial one behind it both land,
+ * in the order recorded, before a read returns. Each test uses its own item id because the log is a
+ * process-wide singleton.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class AuditLogTest {
+
+    private AuditLog auditLog;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        auditLog = AuditLog.getInstance(context);
+    }
+
+    @Test
+    public void fullBufferLandsBeforeThePartialOne() throws InterruptedException {
+        int itemId = 9001;
+        int events = AuditLog.BUFFER_SIZE + 5; // One full buffer handed off, five left behind it
+        for (int delta = 1; delta <= events; delta++) {
+            auditLog.recordQuantityChange(itemId, delta);
+        }
+
+        List<AuditEvent> history = readHistory(itemId);
+        assertEquals(events, history.size());
+        for (int i = 0; i < events; i++) {
+            assertEquals(i + 1, history.get(i).getQuantityDelta());
+        }
+    }
+
+    @Test
+    public void concurrentRecordersLoseNothing() throws InterruptedException {
+        int itemId = 9002;
+        int threads = 4;
+        int perThread = AuditLog.BUFFER_SIZE / 2 + 100; // Buffers fill part-way through each thread's run
+        List<Thread> recorders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread recorder = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    auditLog.recordQuantityChange(itemId, 1);
+                }
+            });
+            recorders.add(recorder);
+            recorder.start();
+        }
+        for (Thread recorder : recorders) {
+            recorder.join();
+        }
+
+        List<AuditEvent> history = readHistory(itemId);
+        assertEquals(threads * perThread, history.size());
+    }
+
+    private List<AuditEvent> readHistory(int itemId) throws InterruptedException {
+        return callOffMainThread(() -> auditLog.getItemHistory(itemId, 0, Long.MAX_VALUE));
+    }
+}
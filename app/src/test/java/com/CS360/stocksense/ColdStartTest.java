@@ -0,0 +1,80 @@
+package com.CS360.stocksense;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.work.testing.WorkManagerTestInitHelper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Host-side cold start check: LoginActivity (starter data and database warm-up) through to the
+ * first populated inventory grid frame, as recorded by StartupTracer.
+ *
+ * The work itself is checked first: the phases are reached in order, and Room rejects main-thread
+ * queries, so any query moved onto the startup path fails setup(). The budget is wall-clock time
+ * on the host, measured here and by the tracer, so it catches large regressions only; it includes
+ * Robolectric's own activity setup and the polling below, and says nothing about time on a device.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class ColdStartTest {
+
+    private static final Duration FRAME = Duration.ofMillis(16);
+    private static final int MAX_FRAMES = 1_000; // Give up after this many frames with no populated grid
+    private static final long POLL_MS = 5; // Host time the snapshot thread gets between frames
+    private static final long BUDGET_MS = 5_000; // Host time from building LoginActivity to the first grid frame
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context); // MainActivity schedules workers
+        StartupTracer.reset();
+    }
+
+    @Test
+    public void timeToFirstPopulatedGrid() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        Robolectric.buildActivity(LoginActivity.class).setup();
+        Robolectric.buildActivity(InventoryGridViewActivity.class).setup();
+
+        // Draw a frame at a time until the grid has drawn with items; the snapshot loads on a background thread
+        for (int frame = 0; frame < MAX_FRAMES && StartupTracer.getTimeToFirstGridFrameMs() < 0; frame++) {
+            shadowOf(Looper.getMainLooper()).idleFor(FRAME);
+            Thread.sleep(POLL_MS);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        long timeToFirstFrameMs = StartupTracer.getTimeToFirstGridFrameMs();
+        Map<String, Long> phases = StartupTracer.getPhases();
+        assertTrue("Grid never drew with items; phases reached " + phases, timeToFirstFrameMs >= 0);
+        assertEquals("Startup phases", Arrays.asList(StartupTracer.PHASE_LOGIN_CREATED, StartupTracer.PHASE_GRID_CREATED,
+                StartupTracer.PHASE_FIRST_SNAPSHOT, StartupTracer.PHASE_FIRST_GRID_FRAME), new ArrayList<>(phases.keySet()));
+
+        long previousMs = 0;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            assertTrue(phase.getKey() + " recorded before the phase ahead of it: " + phases, phase.getValue() >= previousMs);
+            previousMs = phase.getValue();
+        }
+        assertEquals(timeToFirstFrameMs, phases.get(StartupTracer.PHASE_FIRST_GRID_FRAME).longValue());
+        assertTrue("Tracer measured " + timeToFirstFrameMs + " ms, more than the " + elapsedMs + " ms around it",
+                timeToFirstFrameMs <= elapsedMs);
+        assertTrue("Cold start took " + elapsedMs + " ms, budget is " + BUDGET_MS + " ms; phases " + phases,
+                elapsedMs <= BUDGET_MS);
+        System.out.println("Cold start to first grid frame: " + elapsedMs + " ms on the host, tracer " + timeToFirstFrameMs
+                + " ms; phases " + phases);
+    }
+}
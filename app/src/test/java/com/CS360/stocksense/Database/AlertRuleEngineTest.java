@@ -0,0 +1,198 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.callOffMainThread;
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import androidx.test.core.app.ApplicationProvider;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Compiled alert rules against a file database: the first rule in priority order decides an item,
+ * an overriding rule keeps items it does not alert on from reaching the default rule, quiet hours
+ * may span midnight, and each rule applies its own cooldown. The query binds rule arguments, then
+ * the id range, then the cooldown cutoffs, so every test runs it through chunkQuery.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class AlertRuleEngineTest {
+
+    private static final String DATABASE_NAME = "alert_rules_test";
+    private static final long NOON = at(12, 0);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private Context context;
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void firstMatchingRuleByPriorityDecides() throws InterruptedException {
+        offMainThread(() -> {
+            db.alertRulesDao().insert(new AlertRule("Medical", null, "MED-%", 100, 60, 5));
+            db.alertRulesDao().insert(new AlertRule("Aisle A", "A", null, 100, 60, 10)); // Tried first
+            AlertRule disabled = new AlertRule("Disabled", null, null, 100, 60, 20);
+            disabled.setEnabled(false);
+            db.alertRulesDao().insert(disabled);
+
+            db.itemsDao().insert(new Items(1, "MED-Gauze", 1, "A", 10));
+            db.itemsDao().insert(new Items(2, "med-tape", 1, "B", 10)); // LIKE ignores ASCII case
+            db.itemsDao().insert(new Items(3, "Bolts", 1, "C", 10));
+            db.itemsDao().insert(new Items(4, "Nuts", 50, "C", 10)); // Not low
+        });
+
+        Map<Integer, String> due = due(compile(NOON), Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        expected.put(1, "Aisle A");
+        expected.put(2, "Medical");
+        expected.put(3, AlertRule.defaultRule().getName());
+        assertEquals(expected, due);
+    }
+
+    @Test
+    public void overridingRuleKeepsItemsFromTheDefault() throws InterruptedException {
+        offMainThread(() -> {
+            AlertRule overriding = new AlertRule("Half level", "A", null, 50, 60, 10);
+            overriding.setOverrides(true);
+            db.alertRulesDao().insert(overriding);
+            db.alertRulesDao().insert(new AlertRule("Half level, falls through", "B", null, 50, 60, 10));
+
+            db.itemsDao().insert(new Items(1, "Above half", 8, "A", 10)); // Below the level, above half of it
+            db.itemsDao().insert(new Items(2, "Below half", 4, "A", 10));
+            db.itemsDao().insert(new Items(3, "Above half", 8, "B", 10));
+            db.itemsDao().insert(new Items(4, "Below half", 4, "B", 10));
+        });
+
+        Map<Integer, String> due = due(compile(NOON), Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        expected.put(2, "Half level");
+        expected.put(3, AlertRule.defaultRule().getName()); // Not decided by its rule, so the default applies
+        expected.put(4, "Half level, falls through");
+        assertEquals(expected, due);
+    }
+
+    @Test
+    public void quietHoursSpanningMidnightHoldAlerts() throws InterruptedException {
+        offMainThread(() -> {
+            AlertRule night = new AlertRule("Night shift", "A", null, 100, 60, 10);
+            night.setQuietStart(22 * 60);
+            night.setQuietEnd(6 * 60);
+            db.alertRulesDao().insert(night);
+
+            db.itemsDao().insert(new Items(1, "Quiet at night", 1, "A", 10));
+            db.itemsDao().insert(new Items(2, "Default rule", 1, "B", 10));
+        });
+
+        for (long now : new long[]{at(23, 30), at(0, 0), at(5, 59)}) {
+            AlertRuleEngine engine = compile(now);
+            assertEquals(singleton(2, AlertRule.defaultRule().getName()), due(engine, Integer.MIN_VALUE, Integer.MAX_VALUE));
+            assertTrue(engine.isQuietFor("A", "Quiet at night"));
+            assertFalse(engine.isQuietFor("B", "Default rule"));
+        }
+        for (long now : new long[]{at(6, 0), NOON, at(21, 59)}) {
+            AlertRuleEngine engine = compile(now);
+            assertEquals(2, due(engine, Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+            assertFalse(engine.isQuietFor("A", "Quiet at night"));
+        }
+    }
+
+    @Test
+    public void eachRuleAppliesItsOwnCooldown() throws InterruptedException {
+        offMainThread(() -> {
+            db.alertRulesDao().insert(new AlertRule("Hourly", "A", null, 100, 60, 10));
+
+            db.itemsDao().insert(new Items(1, "Hourly, 2h ago", 1, "A", 10));
+            db.itemsDao().insert(new Items(2, "Hourly, 30m ago", 1, "A", 10));
+            db.itemsDao().insert(new Items(3, "Daily, 2h ago", 1, "B", 10));
+            db.itemsDao().insert(new Items(4, "Daily, 25h ago", 1, "B", 10));
+            db.itemsDao().updateLastAlertTimestamp(1, NOON - 2 * HOUR);
+            db.itemsDao().updateLastAlertTimestamp(2, NOON - HOUR / 2);
+            db.itemsDao().updateLastAlertTimestamp(3, NOON - 2 * HOUR);
+            db.itemsDao().updateLastAlertTimestamp(4, NOON - 25 * HOUR);
+        });
+
+        Map<Integer, String> due = due(compile(NOON), Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        expected.put(1, "Hourly");
+        expected.put(4, AlertRule.defaultRule().getName());
+        assertEquals(expected, due);
+    }
+
+    @Test
+    public void chunkQueryScansOnlyItsIdRange() throws InterruptedException {
+        offMainThread(() -> {
+            // Location and pattern arguments on the rule, so a misplaced id range would bind to them
+            db.alertRulesDao().insert(new AlertRule("Scoped", "A", "Item%", 100, 60, 10));
+            for (int id = 1; id <= 6; id++) {
+                db.itemsDao().insert(new Items(id, "Item " + id, 1, id % 2 == 0 ? "A" : "B", 10));
+            }
+        });
+
+        Map<Integer, String> due = due(compile(NOON), 2, 5);
+
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        expected.put(3, AlertRule.defaultRule().getName());
+        expected.put(4, "Scoped");
+        expected.put(5, AlertRule.defaultRule().getName());
+        assertEquals(expected, due);
+    }
+
+    private AlertRuleEngine compile(long now) throws InterruptedException {
+        return AlertRuleEngine.compile(callOffMainThread(() -> db.alertRulesDao().getEnabledRules()), now);
+    }
+
+    // Item id to the name of the rule that alerted it, in id order
+    private Map<Integer, String> due(AlertRuleEngine engine, int afterId, int throughId) throws InterruptedException {
+        return callOffMainThread(() -> {
+            Map<Integer, String> due = new LinkedHashMap<>();
+            try (Cursor cursor = db.alertRulesDao().query(engine.chunkQuery(afterId, throughId))) {
+                while (cursor.moveToNext()) {
+                    due.put(cursor.getInt(AlertRuleEngine.COLUMN_ID),
+                            engine.getRule(cursor.getInt(AlertRuleEngine.COLUMN_RULE)).getName());
+                }
+            }
+            return due;
+        });
+    }
+
+    private static Map<Integer, String> singleton(int itemId, String ruleName) {
+        Map<Integer, String> map = new LinkedHashMap<>();
+        map.put(itemId, ruleName);
+        return map;
+    }
+
+    // A time of day in the zone AlertRuleEngine reads quiet hours in
+    private static long at(int hour, int minute) {
+        return LocalDateTime.of(2024, 1, 10, hour, minute).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,109 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteConstraintException;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Compaction and retention of the audit log: old quantity changes fold into one summary row per item,
+ * user and day, expired segments are dropped, and running it again changes nothing.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class AuditDaoTest {
+
+    private static final String DATABASE_NAME = "audit_test";
+    private static final long DAY = AuditEvent.SEGMENT_SPAN;
+    private static final long EXPIRED = 5 * DAY; // Older than the retention cut-off
+    private static final long OLD = 10 * DAY; // Compacted, but kept
+    private static final long RECENT = 20 * DAY; // Left as is
+    private static final long COMPACT_BEFORE = 15; // Segments
+    private static final long DROP_BEFORE = 8;
+
+    private Context context;
+    private AppDatabase db;
+    private AuditDao auditDao;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        auditDao = db.auditDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void compactKeepsOneSummaryPerItemUserAndDay() throws InterruptedException {
+        offMainThread(() -> {
+            auditDao.insertAll(Arrays.asList(
+                    quantity(EXPIRED + 1, 1, 1, 4),
+                    new AuditEvent(EXPIRED + 2, 1, AuditEvent.ACTION_LOGIN, AuditEvent.NO_ITEM, 0, "alice"),
+                    quantity(OLD + 1, 1, 1, 1),
+                    quantity(OLD + 2, 1, 1, 2),
+                    quantity(OLD + 3, 1, 1, -5), // Item 1, user 1: three changes fold into one
+                    quantity(OLD + 4, 2, 1, 1), // Item 1, user 2: a single change stays as it is
+                    quantity(OLD + 5, 1, 2, 7), // Item 2: a single change stays as it is
+                    new AuditEvent(OLD + 6, 1, AuditEvent.ACTION_UPDATE, 1, 0, "location=B"),
+                    quantity(RECENT + 1, 1, 1, 3),
+                    quantity(RECENT + 2, 1, 1, 3))); // Too recent to compact
+
+            // 2 expired rows dropped, 3 originals replaced by 1 summary
+            assertEquals(2 + 3, auditDao.compact(COMPACT_BEFORE, DROP_BEFORE));
+
+            List<AuditEvent> old = auditDao.getEvents(OLD, OLD + DAY);
+            assertEquals(4, old.size());
+            AuditEvent summary = auditDao.getItemHistory(1, OLD, OLD + DAY).get(0);
+            assertEquals(1, summary.getUserId());
+            assertEquals(-2, summary.getQuantityDelta());
+            assertEquals(OLD + 3, summary.getTimestamp()); // Newest of the group
+            assertEquals("3 changes", summary.getDetail());
+
+            assertEquals(0, auditDao.getEvents(0, OLD).size());
+            assertEquals(2, auditDao.getEvents(RECENT, RECENT + DAY).size());
+
+            // Already compacted, so a second run finds nothing to do
+            assertEquals(0, auditDao.compact(COMPACT_BEFORE, DROP_BEFORE));
+            assertEquals(4, auditDao.getEvents(OLD, OLD + DAY).size());
+            assertEquals(6, auditDao.getEvents(0, Long.MAX_VALUE).size());
+        });
+    }
+
+    @Test
+    public void rowsCannotBeEdited() throws InterruptedException {
+        offMainThread(() -> {
+            auditDao.insertAll(Arrays.asList(quantity(RECENT, 1, 1, 1)));
+            try {
+                db.getOpenHelper().getWritableDatabase().execSQL("UPDATE audit_log SET quantityDelta = 100");
+                fail("audit_log accepted an update");
+            } catch (SQLiteConstraintException expected) {
+                assertTrue(expected.getMessage().contains("append-only"));
+            }
+            assertEquals(1, auditDao.getEvents(0, Long.MAX_VALUE).get(0).getQuantityDelta());
+        });
+    }
+
+    private static AuditEvent quantity(long timestamp, int userId, int itemId, int delta) {
+        return new AuditEvent(timestamp, userId, AuditEvent.ACTION_QUANTITY, itemId, delta, null);
+    }
+}
@@ -0,0 +1,170 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Staging, reconcile and apply of cycle counts against a file database, including the cases where the
+ * quantity on record moves while the count is running.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class CycleCountDaoTest {
+
+    private static final String DATABASE_NAME = "cycle_count_test";
+
+    private Context context;
+    private AppDatabase db;
+    private CycleCountDao cycleCountDao;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        cycleCountDao = db.cycleCountDao();
+        offMainThread(() -> {
+            db.itemsDao().insert(new Items(1, "Pens", 10, "A", 2));
+            db.itemsDao().insert(new Items(2, "Paper", 20, "B", 2));
+            db.itemsDao().insert(new Items(3, "Tape", 5, "A", 2));
+        });
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void latestEntryPerItemWins() throws InterruptedException {
+        offMainThread(() -> {
+            long session = startSession(null);
+            stage(session, new int[]{1, 1, 2}, new int[]{7, 8, 20}); // Item 1 recounted, item 2 matches
+
+            List<CycleCountVariance> variances = cycleCountDao.getVariances(session);
+            assertEquals(1, variances.size());
+            assertEquals(1, variances.get(0).getItemId());
+            assertEquals(10, variances.get(0).getExpectedQuantity());
+            assertEquals(8, variances.get(0).getCountedQuantity());
+            assertEquals(-2, variances.get(0).getVariance());
+            assertEquals(3, cycleCountDao.getEntryCount(session)); // The recount is an entry of its own
+        });
+    }
+
+    @Test
+    public void applyingTwiceChangesStockOnce() throws InterruptedException {
+        offMainThread(() -> {
+            long session = startSession(null);
+            stage(session, new int[]{1, 3}, new int[]{8, 6});
+
+            List<CycleCountVariance> applied = cycleCountDao.apply(session, 1000);
+            assertEquals(2, applied.size());
+            assertEquals(8, db.itemsDao().getItemById(1).getQuantity());
+            assertEquals(6, db.itemsDao().getItemById(3).getQuantity());
+
+            assertNull(cycleCountDao.apply(session, 2000));
+            assertEquals(8, db.itemsDao().getItemById(1).getQuantity());
+            assertEquals(6, db.itemsDao().getItemById(3).getQuantity());
+            assertNull(cycleCountDao.getOpenSession());
+        });
+    }
+
+    @Test
+    public void changesDuringTheCountAreKept() throws InterruptedException {
+        offMainThread(() -> {
+            long session = startSession(null);
+            stage(session, new int[]{1, 2}, new int[]{8, 20}); // 2 short on item 1, item 2 matches
+
+            // Sales and receipts after the shelf was counted
+            db.itemsDao().adjustQuantities(Collections.singletonMap(1, -3));
+            db.itemsDao().adjustQuantities(Collections.singletonMap(2, 5));
+
+            cycleCountDao.apply(session, 1000);
+            assertEquals(10 - 3 - 2, db.itemsDao().getItemById(1).getQuantity());
+            assertEquals(25, db.itemsDao().getItemById(2).getQuantity());
+        });
+    }
+
+    @Test
+    public void unknownDeletedAndOtherLocationItemsAreRejected() throws InterruptedException {
+        offMainThread(() -> {
+            db.itemsDao().softDeleteItems(Collections.singletonList(3), 1000);
+            long session = startSession("A");
+
+            List<Integer> rejected = cycleCountDao.addCounts(session, new int[]{1, 2, 3, 99}, new int[]{9, 19, 4, 1}, 4, 1000);
+            assertEquals(Arrays.asList(2, 3, 99), rejected);
+            assertEquals(1, cycleCountDao.getEntryCount(session));
+            assertEquals(0, cycleCountDao.getUncountedItemCount(session)); // Item 3 is deleted, so only item 1 is at A
+
+            // A whole-store count takes any live item
+            long wholeStore = cycleCountDao.insert(new CycleCount(2000, null, 1));
+            assertEquals(Collections.singletonList(3), cycleCountDao.addCounts(wholeStore, new int[]{2, 3}, new int[]{19, 4}, 2, 2000));
+        });
+    }
+
+    @Test
+    public void countsBelowReservedUnitsAreNotApplied() throws InterruptedException {
+        offMainThread(() -> {
+            assertTrue(db.reservationsDao().reserve(1, 6, "order-1") != ReservationsDao.NOT_RESERVED);
+            long session = startSession(null);
+            stage(session, new int[]{1, 3}, new int[]{4, 6}); // Item 1 would drop below its 6 reserved units
+
+            List<CycleCountVariance> variances = cycleCountDao.getVariances(session);
+            assertEquals(2, variances.size());
+            for (CycleCountVariance variance : variances) {
+                assertEquals(variance.getItemId() == 1, variance.isBlockedByReservations());
+            }
+
+            List<CycleCountVariance> applied = cycleCountDao.apply(session, 1000);
+            assertEquals(1, applied.size());
+            assertEquals(3, applied.get(0).getItemId());
+            assertEquals(10, db.itemsDao().getItemById(1).getQuantity());
+            assertEquals(6, db.itemsDao().getItemById(3).getQuantity());
+        });
+    }
+
+    @Test
+    public void shrinkageIsNotCountedAsConsumption() throws InterruptedException {
+        offMainThread(() -> {
+            db.itemsDao().adjustQuantities(Collections.singletonMap(1, -2)); // A sale sets a rate
+            Items before = db.itemsDao().getItemById(1);
+            assertTrue(before.getConsumptionRate() > 0);
+
+            long session = startSession(null);
+            stage(session, new int[]{1}, new int[]{4}); // 4 units missing from the shelf
+            cycleCountDao.apply(session, 1000);
+
+            Items after = db.itemsDao().getItemById(1);
+            assertEquals(4, after.getQuantity());
+            assertEquals(before.getConsumptionRate(), after.getConsumptionRate(), 0.0);
+            assertEquals(before.getLastConsumptionAt(), after.getLastConsumptionAt());
+            assertTrue(after.getStockoutAt() < before.getStockoutAt()); // Fewer units, so it runs out sooner
+            assertEquals(1000, cycleCountDao.getSession(session).getAppliedAt());
+        });
+    }
+
+    private long startSession(String location) {
+        return cycleCountDao.insert(new CycleCount(1000, location, 1));
+    }
+
+    private void stage(long session, int[] itemIds, int[] counts) {
+        assertEquals(Collections.emptyList(), cycleCountDao.addCounts(session, itemIds, counts, itemIds.length, 1000));
+    }
+}
@@ -0,0 +1,92 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Expiry alerts and disposal: a lot is alerted while it is about to expire and once after it has,
+ * and disposing of it writes its units off the item.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class LotsDaoTest {
+
+    private static final String DATABASE_NAME = "lots_test";
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long WINDOW = 7 * DAY;
+
+    private Context context;
+    private AppDatabase db;
+    private LotsDao lotsDao;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        lotsDao = db.lotsDao();
+        offMainThread(() -> db.itemsDao().insert(new Items(1, "Milk", 0, "A", 10)));
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void expiredLotsAreAlertedOnceMore() throws InterruptedException {
+        offMainThread(() -> {
+            long now = 100 * DAY;
+            lotsDao.receiveLot(1, 5, now + 2 * DAY);
+
+            assertEquals(1, alertDue(now).size());
+            markAlerted(now);
+            assertTrue(alertDue(now + DAY / 2).isEmpty()); // Alerted within the last day
+
+            long afterExpiry = now + 3 * DAY;
+            assertEquals(1, alertDue(afterExpiry).size()); // Now expired, which gets one more alert
+            markAlerted(afterExpiry);
+            assertTrue(alertDue(afterExpiry + 10 * DAY).isEmpty());
+        });
+    }
+
+    @Test
+    public void disposeExpiredWritesOffOnlyExpiredUnits() throws InterruptedException {
+        offMainThread(() -> {
+            long now = 100 * DAY;
+            lotsDao.receiveLot(1, 5, now - DAY);
+            lotsDao.receiveLot(1, 3, now + DAY);
+
+            assertEquals(5, lotsDao.getExpiredQuantity(1, now));
+            assertEquals(5, lotsDao.disposeExpired(1, now));
+            assertEquals(3, db.itemsDao().getItemById(1).getQuantity());
+            assertEquals(3, lotsDao.getLotQuantity(1));
+            assertEquals(0, lotsDao.disposeExpired(1, now));
+        });
+    }
+
+    private List<ExpiringLot> alertDue(long now) {
+        return lotsDao.getExpiringLots(now, now + WINDOW, now - DAY);
+    }
+
+    private void markAlerted(long now) {
+        for (ExpiringLot expiring : alertDue(now)) {
+            lotsDao.markAlerted(Collections.singletonList(expiring.getLot().getId()), now);
+        }
+    }
+}
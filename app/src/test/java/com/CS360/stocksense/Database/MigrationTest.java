@@ -0,0 +1,225 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.callOffMainThread;
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Upgrades a synthetic version 1 store through every migration. Room validates the migrated schema
+ * against the entities on open, so a migration that drifts from an entity fails here.
+ *
+ * The default run uses a small store. -Dmigration.timed=true upgrades 1M items and also checks the
+ * blocking open against its budget; -Dmigration.rows=... overrides the row count either way.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class MigrationTest {
+
+    private static final String DATABASE_NAME = "migration_test";
+    private static final boolean TIMED = Boolean.getBoolean("migration.timed"); // Wall-clock budget is opt-in, CI timing is noisy
+    private static final int ROW_COUNT = Integer.getInteger("migration.rows", TIMED ? 1_000_000 : 2_000);
+    private static final long OPEN_BUDGET_MS = 5_000; // The part users wait for
+    private static final File SCHEMA_DIR = new File("schemas/" + AppDatabase.class.getName()); // Relative to the module
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void migrationsFormOneChain() {
+        for (int i = 0; i < Migrations.ALL.length; i++) {
+            Migration migration = Migrations.ALL[i];
+            assertEquals(i + 1, migration.startVersion);
+            assertEquals(i + 2, migration.endVersion);
+        }
+    }
+
+    @Test
+    public void upgradesLargeVersion1StoreWithoutLosingData() throws InterruptedException {
+        createVersion1Database();
+
+        AppDatabase db = AppDatabase.build(context, DATABASE_NAME);
+        long start = System.nanoTime();
+        List<Backfill> pending = callOffMainThread(() -> db.backfillDao().getPending()); // First query opens and migrates
+        long openMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        offMainThread(() -> {
+            for (Backfill backfill : pending) {
+                while (!Backfills.runChunk(db, backfill)) {
+                    // Run to completion; BackfillWorker checks isStopped() here
+                }
+            }
+        });
+        long backfillMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<String> names = new ArrayList<>();
+        for (Backfill backfill : pending) {
+            names.add(backfill.getName());
+        }
+        assertTrue(names.contains(Backfills.PARTIAL_INDEXES));
+        assertTrue(names.contains(Backfills.CONSUMPTION_RATES));
+
+        offMainThread(() -> {
+            SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+            assertEquals(15, sqlite.getVersion());
+            assertEquals(ROW_COUNT, queryLong(sqlite, "SELECT COUNT(*) FROM items WHERE deletedAt = 0 AND version = 0"));
+            assertEquals(1, queryLong(sqlite, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'index_items_tombstones'"));
+            assertEquals(0, queryLong(sqlite, "SELECT COUNT(*) FROM sqlite_master WHERE name = 'index_items_live'"));
+            assertEquals(0, queryLong(sqlite, "SELECT COUNT(*) FROM backfills"));
+            // Duplicate usernames from before the unique index are kept, renamed
+            assertEquals(1, queryLong(sqlite, "SELECT COUNT(*) FROM users WHERE username = 'admin'"));
+            assertEquals(1, queryLong(sqlite, "SELECT COUNT(*) FROM users WHERE username = 'admin#2'"));
+            assertEquals(7, db.itemsDao().getItemById(7).getQuantity());
+        });
+        db.close();
+
+        if (TIMED) {
+            assertTrue("Blocking open of " + ROW_COUNT + " items took " + openMs + " ms (backfills " + backfillMs
+                    + " ms), budget is " + OPEN_BUDGET_MS + " ms", openMs < OPEN_BUDGET_MS);
+        }
+    }
+
+    @Test
+    public void exportedSchemaMatchesCurrentVersion() throws Exception {
+        AppDatabase db = AppDatabase.build(context, DATABASE_NAME);
+        AtomicReference<String> identityHash = new AtomicReference<>();
+        AtomicReference<Integer> version = new AtomicReference<>();
+        offMainThread(() -> {
+            SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+            version.set(sqlite.getVersion());
+            try (Cursor cursor = sqlite.query("SELECT identity_hash FROM room_master_table")) {
+                cursor.moveToFirst();
+                identityHash.set(cursor.getString(0));
+            }
+        });
+        db.close();
+
+        // Room writes schemas/<version>.json on compile; a stale or missing file means the schema changed
+        // without a version bump, or the export was not committed
+        File schema = new File(SCHEMA_DIR, version.get() + ".json");
+        assertTrue("Missing exported schema " + schema, schema.isFile());
+        JSONObject database = new JSONObject(new String(Files.readAllBytes(schema.toPath()), StandardCharsets.UTF_8))
+                .getJSONObject("database");
+        assertEquals(version.get().intValue(), database.getInt("version"));
+        assertEquals(identityHash.get(), database.getString("identityHash"));
+    }
+
+    @Test
+    public void consumptionBackfillSeedsRatesFromRollups() throws InterruptedException {
+        AppDatabase db = AppDatabase.build(context, DATABASE_NAME);
+        LocalDate today = LocalDate.now();
+
+        offMainThread(() -> {
+            db.itemsDao().insert(new Items(1, "Used daily", 80, "A", 10));
+            db.itemsDao().insert(new Items(2, "Never used", 50, "A", 10));
+
+            // Item 1 drops by 2 units a day for the last 10 days, item 2 stays flat
+            Map<Integer, byte[]> item1 = new LinkedHashMap<>();
+            Map<Integer, byte[]> item2 = new LinkedHashMap<>();
+            for (int i = 10; i >= 0; i--) {
+                LocalDate date = today.minusDays(i);
+                int month = QuantitySeriesCodec.monthKey(date);
+                item1.put(month, QuantitySeriesCodec.append(item1.get(month), date.getDayOfMonth(), 100 - 2 * (10 - i)));
+                item2.put(month, QuantitySeriesCodec.append(item2.get(month), date.getDayOfMonth(), 50));
+            }
+            List<QuantitySeries> series = new ArrayList<>();
+            for (Map.Entry<Integer, byte[]> entry : item1.entrySet()) {
+                series.add(new QuantitySeries(1, entry.getKey(), entry.getValue()));
+            }
+            for (Map.Entry<Integer, byte[]> entry : item2.entrySet()) {
+                series.add(new QuantitySeries(2, entry.getKey(), entry.getValue()));
+            }
+            db.quantitySeriesDao().upsertAll(series);
+
+            Backfill backfill = new Backfill(Backfills.CONSUMPTION_RATES, Backfill.START);
+            db.getOpenHelper().getWritableDatabase().execSQL("INSERT INTO backfills (name, lastId) VALUES (?, ?)",
+                    new Object[]{backfill.getName(), Backfill.START});
+            while (!Backfills.runChunk(db, backfill)) {
+                // One chunk covers both items
+            }
+
+            Items used = db.itemsDao().getItemById(1);
+            assertEquals(2.0, used.getConsumptionRate(), 0.001);
+            assertTrue(used.getStockoutAt() != null && used.getStockoutAt() > System.currentTimeMillis());
+            assertEquals(0.0, db.itemsDao().getItemById(2).getConsumptionRate(), 0.0);
+        });
+        db.close();
+    }
+
+    // Schema exactly as Room created it at version 1, filled with ROW_COUNT items
+    private void createVersion1Database() {
+        context.getDatabasePath(DATABASE_NAME).getParentFile().mkdirs();
+        SQLiteDatabase sqlite = SQLiteDatabase.openOrCreateDatabase(context.getDatabasePath(DATABASE_NAME), null);
+        sqlite.execSQL("CREATE TABLE IF NOT EXISTS `users` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                + "`username` TEXT, `password` TEXT, `role` TEXT, `phoneNumber` TEXT, `isEnrolledInSMS` INTEGER NOT NULL)");
+        sqlite.execSQL("CREATE TABLE IF NOT EXISTS `items` (`id` INTEGER NOT NULL, `itemName` TEXT, "
+                + "`quantity` INTEGER NOT NULL, `location` TEXT, `alertLevel` INTEGER NOT NULL, "
+                + "`lastAlertTimestamp` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+        sqlite.execSQL("CREATE TABLE IF NOT EXISTS room_master_table (id INTEGER PRIMARY KEY,identity_hash TEXT)");
+
+        sqlite.beginTransaction();
+        try {
+            sqlite.execSQL("INSERT INTO users (username, password, role, phoneNumber, isEnrolledInSMS) VALUES ('admin', 'a', 'admin', NULL, 0)");
+            sqlite.execSQL("INSERT INTO users (username, password, role, phoneNumber, isEnrolledInSMS) VALUES ('admin', 'b', 'user', NULL, 0)");
+            SQLiteStatement insert = sqlite.compileStatement("INSERT INTO items VALUES (?, ?, ?, ?, ?, 0)");
+            for (int id = 1; id <= ROW_COUNT; id++) {
+                insert.bindLong(1, id);
+                insert.bindString(2, "Item " + id);
+                insert.bindLong(3, id % 500);
+                insert.bindString(4, "Aisle " + (id % 50));
+                insert.bindLong(5, 10);
+                insert.executeInsert();
+            }
+            sqlite.setTransactionSuccessful();
+        } finally {
+            sqlite.endTransaction();
+        }
+        sqlite.setVersion(1);
+        sqlite.close();
+    }
+
+    private static long queryLong(SupportSQLiteDatabase sqlite, String sql) {
+        try (Cursor cursor = sqlite.query(sql)) {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.CS360.stocksense.Database;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import org.junit.Test;
+
+/**
+ * Round trips through the QuantitySeries encoding: negative and extreme deltas, a re-run on the
+ * same day, unchanged values and a full month of entries.
+ */
+public class QuantitySeriesCodecTest {
+
+    private final int[] days = new int[QuantitySeriesCodec.MAX_ENTRIES];
+    private final int[] quantities = new int[QuantitySeriesCodec.MAX_ENTRIES];
+
+    @Test
+    public void negativeAndLargeDeltasRoundTrip() {
+        int[] inDays = {1, 2, 9, 10, 20, 31};
+        int[] inQuantities = {500, 3, -64, 63, Integer.MAX_VALUE, -Integer.MAX_VALUE};
+
+        byte[] data = QuantitySeriesCodec.encode(inDays, inQuantities, inDays.length);
+
+        assertEquals(inDays.length, QuantitySeriesCodec.decode(data, days, quantities));
+        assertArrayEquals(inDays, Arrays.copyOf(days, inDays.length));
+        assertArrayEquals(inQuantities, Arrays.copyOf(quantities, inQuantities.length));
+    }
+
+    @Test
+    public void smallDeltasTakeOneByteEach() {
+        // Deltas 63, -64 and -64 zigzag to single varint bytes, so each pair is two bytes
+        byte[] data = QuantitySeriesCodec.encode(new int[]{1, 2, 3}, new int[]{63, -1, -65}, 3);
+        assertEquals(6, data.length);
+    }
+
+    @Test
+    public void sameDayOverwritesTheLastEntry() {
+        byte[] data = QuantitySeriesCodec.append(null, 5, 10);
+        data = QuantitySeriesCodec.append(data, 6, 12);
+        data = QuantitySeriesCodec.append(data, 6, 7); // Rollup ran again later the same day
+
+        assertEquals(2, QuantitySeriesCodec.decode(data, days, quantities));
+        assertEquals(6, days[1]);
+        assertEquals(7, quantities[1]);
+
+        // Overwriting back to the previous day's value drops the entry, it is carried forward instead
+        data = QuantitySeriesCodec.append(data, 6, 10);
+        assertEquals(1, QuantitySeriesCodec.decode(data, days, quantities));
+        assertEquals(5, days[0]);
+    }
+
+    @Test
+    public void unchangedQuantityIsNotStored() {
+        byte[] data = QuantitySeriesCodec.append(null, 1, 4);
+        byte[] again = QuantitySeriesCodec.append(data, 2, 4);
+        assertArrayEquals(data, again);
+        assertEquals(1, QuantitySeriesCodec.decode(again, days, quantities));
+    }
+
+    @Test
+    public void fullMonthFitsMaxEntries() {
+        byte[] data = null;
+        for (int day = 1; day <= QuantitySeriesCodec.MAX_ENTRIES; day++) {
+            data = QuantitySeriesCodec.append(data, day, day % 2 == 0 ? -day : day); // Changes every day
+        }
+        data = QuantitySeriesCodec.append(data, QuantitySeriesCodec.MAX_ENTRIES, 0); // Re-run on the last day
+
+        assertEquals(QuantitySeriesCodec.MAX_ENTRIES, QuantitySeriesCodec.decode(data, days, quantities));
+        for (int i = 0; i < QuantitySeriesCodec.MAX_ENTRIES - 1; i++) {
+            int day = i + 1;
+            assertEquals(day, days[i]);
+            assertEquals(day % 2 == 0 ? -day : day, quantities[i]);
+        }
+        assertEquals(0, quantities[QuantitySeriesCodec.MAX_ENTRIES - 1]);
+    }
+
+    @Test
+    public void monthKeyOrdersAcrossYears() {
+        assertEquals(QuantitySeriesCodec.monthKey(LocalDate.of(2023, 12, 31)) + 1,
+                QuantitySeriesCodec.monthKey(LocalDate.of(2024, 1, 1)));
+        assertEquals(0, QuantitySeriesCodec.monthKey(LocalDate.of(0, 1, 15)));
+    }
+}
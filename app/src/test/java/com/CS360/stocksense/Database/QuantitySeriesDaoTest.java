@@ -0,0 +1,115 @@
+package com.CS360.stocksense.Database;
+
+import static org.junit.Assert.assertEquals;
+
+import android.database.Cursor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * getDailyQuantities over an in-memory set of series: values carry forward across month boundaries
+ * and empty months, and days before the first recorded value have no data.
+ */
+public class QuantitySeriesDaoTest {
+
+    private static final int ITEM_ID = 1;
+
+    private final FakeQuantitySeriesDao dao = new FakeQuantitySeriesDao();
+
+    @Test
+    public void carriesForwardAcrossEmptyMonths() {
+        record(LocalDate.of(2024, 1, 10), 5);
+        record(LocalDate.of(2024, 1, 20), 8);
+        record(LocalDate.of(2024, 3, 5), 2); // Nothing recorded in February
+
+        LocalDate from = LocalDate.of(2024, 1, 15);
+        LocalDate to = LocalDate.of(2024, 3, 10);
+        int[] quantities = dao.getDailyQuantities(ITEM_ID, from, to);
+
+        assertEquals(to.toEpochDay() - from.toEpochDay() + 1, quantities.length);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            int expected = date.isBefore(LocalDate.of(2024, 1, 20)) ? 5
+                    : date.isBefore(LocalDate.of(2024, 3, 5)) ? 8 : 2;
+            assertEquals(date.toString(), expected, quantities[(int) (date.toEpochDay() - from.toEpochDay())]);
+        }
+    }
+
+    @Test
+    public void daysBeforeTheFirstValueHaveNoData() {
+        record(LocalDate.of(2024, 2, 27), 4);
+        record(LocalDate.of(2024, 3, 2), 6);
+
+        int[] quantities = dao.getDailyQuantities(ITEM_ID, LocalDate.of(2024, 2, 25), LocalDate.of(2024, 3, 1));
+
+        assertEquals(6, quantities.length);
+        assertEquals(QuantitySeriesCodec.NO_DATA, quantities[0]);
+        assertEquals(QuantitySeriesCodec.NO_DATA, quantities[1]);
+        for (int i = 2; i < quantities.length; i++) {
+            assertEquals(4, quantities[i]); // Feb 27 through Mar 1; the Mar 2 change is past the range
+        }
+    }
+
+    @Test
+    public void unknownItemHasNoData() {
+        record(LocalDate.of(2024, 1, 1), 3);
+        int[] quantities = dao.getDailyQuantities(ITEM_ID + 1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 3));
+        for (int quantity : quantities) {
+            assertEquals(QuantitySeriesCodec.NO_DATA, quantity);
+        }
+    }
+
+    private void record(LocalDate date, int quantity) {
+        int month = QuantitySeriesCodec.monthKey(date);
+        for (QuantitySeries series : dao.rows) {
+            if (series.getItemId() == ITEM_ID && series.getMonth() == month) {
+                series.setData(QuantitySeriesCodec.append(series.getData(), date.getDayOfMonth(), quantity));
+                return;
+            }
+        }
+        dao.rows.add(new QuantitySeries(ITEM_ID, month, QuantitySeriesCodec.append(null, date.getDayOfMonth(), quantity)));
+    }
+
+    // Only the query getDailyQuantities reads; rows are added in month order
+    private static class FakeQuantitySeriesDao implements QuantitySeriesDao {
+
+        final List<QuantitySeries> rows = new ArrayList<>();
+
+        @Override
+        public List<QuantitySeries> getSeriesForItem(int itemId, int fromMonth, int toMonth) {
+            List<QuantitySeries> result = new ArrayList<>();
+            for (QuantitySeries series : rows) {
+                if (series.getItemId() == itemId && series.getMonth() >= fromMonth && series.getMonth() <= toMonth) {
+                    result.add(series);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<QuantitySeries> getSeriesForMonth(int month) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<QuantitySeries> getSeriesForItems(int afterId, int throughId, int fromMonth) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void upsertAll(List<QuantitySeries> series) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteBefore(int month) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor getQuantitiesCursor() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
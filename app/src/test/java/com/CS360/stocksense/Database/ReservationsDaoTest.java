@@ -0,0 +1,162 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Reservations against a file database: concurrent pickers never hold more than is on hand, release
+ * and commit work across chunk boundaries, and tombstoned items cannot be reserved.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE)
+public class ReservationsDaoTest {
+
+    private static final String DATABASE_NAME = "reservations_test";
+    private static final int STOCK = 100;
+
+    private Context context;
+    private AppDatabase db;
+    private ReservationsDao reservationsDao;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        reservationsDao = db.reservationsDao();
+        offMainThread(() -> {
+            db.itemsDao().insert(new Items(1, "Pens", STOCK, "A", 10));
+            db.itemsDao().insert(new Items(2, "Paper", STOCK, "A", 10));
+        });
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        context.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void concurrentPickersNeverOversell() throws InterruptedException {
+        int pickers = 8;
+        int attemptsPerPicker = 40; // 8 x 40 x 1-3 units asks for far more than is on hand
+        AtomicInteger reservedUnits = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < pickers; p++) {
+            String orderRef = "order-" + p;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < attemptsPerPicker; i++) {
+                        int n = 1 + i % 3;
+                        if (reservationsDao.reserve(1, n, orderRef) != ReservationsDao.NOT_RESERVED) {
+                            reservedUnits.addAndGet(n);
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("Picker failed: " + failure.get(), failure.get());
+
+        offMainThread(() -> {
+            Items item = db.itemsDao().getItemById(1);
+            assertEquals(STOCK, item.getQuantity());
+            assertEquals(reservedUnits.get(), item.getReserved());
+            assertTrue("Reserved " + item.getReserved() + " of " + STOCK, item.getReserved() <= STOCK);
+            assertTrue(item.getReserved() > STOCK - 3); // Only a remainder smaller than every ask is left
+            int held = 0;
+            for (Reservation reservation : reservationsDao.getReservationsForItem(1)) {
+                held += reservation.getQuantity();
+            }
+            assertEquals(item.getReserved(), held);
+        });
+    }
+
+    @Test
+    public void releaseAndCommitSpanChunks() throws InterruptedException {
+        offMainThread(() -> {
+            // One unit each, alternating items, enough to need three chunks of either kind
+            int count = 2 * ReservationsDao.RELEASE_CHUNK_SIZE + 20;
+            List<Long> toRelease = new ArrayList<>();
+            List<Long> toCommit = new ArrayList<>();
+            db.itemsDao().adjustQuantities(Collections.singletonMap(1, count));
+            db.itemsDao().adjustQuantities(Collections.singletonMap(2, count));
+            for (int i = 0; i < count; i++) {
+                int itemId = 1 + i % 2;
+                toRelease.add(reservationsDao.reserve(itemId, 1, "release"));
+                toCommit.add(reservationsDao.reserve(itemId, 1, "commit"));
+            }
+            assertTrue(toCommit.size() > 2 * ReservationsDao.COMMIT_CHUNK_SIZE);
+
+            reservationsDao.release(toRelease);
+            Items pens = db.itemsDao().getItemById(1);
+            assertEquals(STOCK + count, pens.getQuantity());
+            assertEquals(count / 2, pens.getReserved());
+            assertTrue(reservationsDao.getReservationsForOrder("release").isEmpty());
+
+            reservationsDao.commit(toCommit);
+            pens = db.itemsDao().getItemById(1);
+            Items paper = db.itemsDao().getItemById(2);
+            assertEquals(STOCK + count - count / 2, pens.getQuantity());
+            assertEquals(STOCK + count - count / 2, paper.getQuantity());
+            assertEquals(0, pens.getReserved());
+            assertEquals(0, paper.getReserved());
+            assertTrue(reservationsDao.getReservationsForOrder("commit").isEmpty());
+        });
+    }
+
+    @Test
+    public void deletedItemsCannotBeReserved() throws InterruptedException {
+        offMainThread(() -> {
+            db.itemsDao().softDeleteItems(Collections.singletonList(2), 1000);
+            assertEquals(ReservationsDao.NOT_RESERVED, reservationsDao.reserve(2, 1, "order"));
+            assertTrue(reservationsDao.getReservationsForItem(2).isEmpty());
+
+            db.itemsDao().restoreItems(Collections.singletonList(2));
+            assertTrue(reservationsDao.reserve(2, 1, "order") != ReservationsDao.NOT_RESERVED);
+        });
+    }
+
+    @Test
+    public void editsCannotDropQuantityBelowReserved() throws InterruptedException {
+        offMainThread(() -> {
+            Items loaded = db.itemsDao().getItemById(1);
+            assertTrue(reservationsDao.reserve(1, 60, "order") != ReservationsDao.NOT_RESERVED);
+
+            // Reserved after the screen loaded the item; the version is unchanged, so this is not a conflict
+            assertEquals(ItemsDao.BELOW_RESERVED, db.itemsDao().updateChangedFields(loaded, 50, "A", 10));
+            assertEquals(ItemsDao.SAVED, db.itemsDao().updateChangedFields(loaded, 70, "A", 10));
+            assertEquals(ItemsDao.CHANGED_ELSEWHERE, db.itemsDao().updateChangedFields(loaded, 80, "A", 10));
+            assertEquals(70, db.itemsDao().getItemById(1).getQuantity());
+
+            assertEquals(Collections.emptyMap(), db.itemsDao().adjustQuantities(Collections.singletonMap(1, -11)));
+            assertEquals(60, db.reservationsDao().getReservationsForItem(1).get(0).getQuantity());
+        });
+    }
+}
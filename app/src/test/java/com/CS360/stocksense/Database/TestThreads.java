@@ -0,0 +1,42 @@
+package com.CS360.stocksense.Database;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Room rejects queries on the main thread, which is the test thread under Robolectric. Database
+// work in tests goes through here, and a failure on the worker thread fails the test.
+public final class TestThreads {
+
+    private TestThreads() {
+    }
+
+    // Run on a worker thread and wait; assertion errors and exceptions are rethrown
+    public static void offMainThread(Runnable runnable) throws InterruptedException {
+        callOffMainThread(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    // Run on a worker thread, wait and return the result
+    public static <T> T callOffMainThread(Callable<T> callable) throws InterruptedException {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.set(callable.call());
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        thread.start();
+        thread.join();
+        if (failure.get() instanceof AssertionError) {
+            throw (AssertionError) failure.get();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        return result.get();
+    }
+}
@@ -0,0 +1,258 @@
+package com.CS360.stocksense.Database;
+
+import static com.CS360.stocksense.Database.TestThreads.callOffMainThread;
+import static com.CS360.stocksense.Database.TestThreads.offMainThread;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.SQLiteMode;
+
+/**
+ * Stress/soak harness for the concurrent item write paths. Drives the same DAO calls as the grid's
+ * onPause flush, ItemDetailsActivity saves, LowInventoryWorker alert stamps and
+ * MainActivity.createNewItem against a file database, then checks that no quantity change was lost.
+ * Once the writers finish, throughput and latency percentiles per path are written to
+ * build/reports/stress/write-stress.txt and repeated in any assertion message; -Dstress.p99Ms=... fails the run when any
+ * path's p99 latency goes over that budget.
+ *
+ * Skipped unless run with -Dstress.enabled=true. Tune with -Dstress.items=..., -Dstress.seconds=... and
+ * -Dstress.writers=... (threads per path); e.g.
+ * ./gradlew testDebugUnitTest --tests '*WriteStressTest' -Dstress.enabled=true -Dstress.seconds=600 for a soak run.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@SQLiteMode(SQLiteMode.Mode.NATIVE) // Real SQLite locking, not the legacy in-JVM shim
+public class WriteStressTest {
+
+    private static final String DATABASE_NAME = "write_stress_test";
+    private static final int ITEM_COUNT = Integer.getInteger("stress.items", 20000);
+    private static final int DURATION_SECONDS = Integer.getInteger("stress.seconds", 10);
+    private static final int WRITERS_PER_PATH = Integer.getInteger("stress.writers", 2);
+    private static final int INITIAL_QUANTITY = 1000;
+    private static final int MAX_SAVE_ATTEMPTS = 20; // Details saves retry on conflict like the reload-and-edit flow
+    private static final long P99_BUDGET_MS = Long.getLong("stress.p99Ms", 0); // 0 = report only
+    private static final File REPORT_FILE = new File("build/reports/stress/write-stress.txt"); // Relative to the module
+
+    private Context context;
+    private AppDatabase db;
+    private ItemsDao itemsDao;
+
+    // Net quantity change each path reported as committed, indexed by item id
+    private AtomicLongArray appliedDeltas;
+    private final AtomicInteger nextNewId = new AtomicInteger();
+    private final AtomicInteger createdItems = new AtomicInteger();
+    private final AtomicLong saveConflicts = new AtomicLong();
+    private final AtomicLong failedSaves = new AtomicLong();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        assumeTrue("Stress run is opt-in: -Dstress.enabled=true", Boolean.getBoolean("stress.enabled"));
+        context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase(DATABASE_NAME);
+        db = AppDatabase.build(context, DATABASE_NAME);
+        itemsDao = db.itemsDao();
+
+        offMainThread(() -> db.runInTransaction(() -> {
+            for (int id = 1; id <= ITEM_COUNT; id++) {
+                itemsDao.insert(new Items(id, "Item " + id, INITIAL_QUANTITY, "Aisle " + (id % 50), 10));
+            }
+        }));
+        appliedDeltas = new AtomicLongArray(ITEM_COUNT + 1);
+        nextNewId.set(ITEM_COUNT + 1);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null) { // Null when the run was skipped
+            db.close();
+            context.deleteDatabase(DATABASE_NAME);
+        }
+    }
+
+    @Test
+    public void concurrentWritesLoseNoUpdates() throws InterruptedException, IOException {
+        Map<String, Recorder> recorders = new HashMap<>();
+        List<Thread> threads = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+        for (int i = 0; i < WRITERS_PER_PATH; i++) {
+            threads.add(writer("grid_flush", this::gridFlush, recorders, deadline, failure));
+            threads.add(writer("details_save", this::detailsSave, recorders, deadline, failure));
+            threads.add(writer("alert_stamp", this::alertStamp, recorders, deadline, failure));
+            threads.add(writer("create_item", this::createItem, recorders, deadline, failure));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("Writer failed: " + failure.get(), failure.get());
+
+        StringBuilder report = new StringBuilder(String.format(Locale.US,
+                "Write stress: %d items, %d s, %d writers per path%n", ITEM_COUNT, DURATION_SECONDS, WRITERS_PER_PATH));
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            report.append(entry.getValue().report(entry.getKey(), DURATION_SECONDS)).append(String.format("%n"));
+        }
+        report.append("details_save conflicts retried: ").append(saveConflicts.get())
+                .append(", gave up: ").append(failedSaves.get());
+        REPORT_FILE.getParentFile().mkdirs();
+        Files.write(REPORT_FILE.toPath(), report.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Every committed delta must be visible in the final quantity
+        List<Items> finalItems = callOffMainThread(() -> itemsDao.getAllItems());
+        int lost = 0;
+        for (Items item : finalItems) {
+            if (item.getId() <= ITEM_COUNT
+                    && item.getQuantity() != INITIAL_QUANTITY + appliedDeltas.get(item.getId())) {
+                lost++;
+            }
+        }
+        assertEquals("Items with lost quantity updates\n" + report, 0, lost);
+        assertEquals("Created items\n" + report, ITEM_COUNT + createdItems.get(), finalItems.size());
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            assertTrue(entry.getKey() + " made no progress\n" + report, entry.getValue().count() > 0);
+            if (P99_BUDGET_MS > 0) {
+                assertTrue(entry.getKey() + " p99 over " + P99_BUDGET_MS + " ms\n" + report,
+                        entry.getValue().percentileMs(0.99) <= P99_BUDGET_MS);
+            }
+        }
+    }
+
+
+    // Grid onPause: apply a batch of relative deltas in one transaction
+    private void gridFlush(ThreadLocalRandom random) {
+        Map<Integer, Integer> deltas = new HashMap<>();
+        int count = 1 + random.nextInt(20);
+        for (int i = 0; i < count; i++) {
+            deltas.merge(randomId(random), random.nextInt(-5, 6), Integer::sum);
+        }
+        for (Map.Entry<Integer, Integer> entry : itemsDao.adjustQuantities(deltas).entrySet()) {
+            appliedDeltas.addAndGet(entry.getKey(), entry.getValue());
+        }
+    }
+
+    // Item details: read, edit, save only changed fields; reload and retry on a version conflict
+    private void detailsSave(ThreadLocalRandom random) {
+        int id = randomId(random);
+        int delta = random.nextInt(-5, 6);
+        for (int attempt = 0; attempt < MAX_SAVE_ATTEMPTS; attempt++) {
+            Items original = itemsDao.getItemById(id);
+            if (itemsDao.updateChangedFields(original, original.getQuantity() + delta,
+                    original.getLocation(), original.getAlertLevel()) == ItemsDao.SAVED) {
+                appliedDeltas.addAndGet(id, delta);
+                return;
+            }
+            saveConflicts.incrementAndGet();
+        }
+        failedSaves.incrementAndGet();
+    }
+
+    // Low inventory worker: stamp the alert time on a chunk of items
+    private void alertStamp(ThreadLocalRandom random) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(randomId(random));
+        }
+        itemsDao.updateLastAlertTimestamps(ids, System.currentTimeMillis());
+    }
+
+    // New item dialog: single insert
+    private void createItem(ThreadLocalRandom random) {
+        int id = nextNewId.getAndIncrement();
+        itemsDao.insert(new Items(id, "New item " + id, random.nextInt(100), "Receiving", 5));
+        createdItems.incrementAndGet();
+    }
+
+    private int randomId(ThreadLocalRandom random) {
+        return 1 + random.nextInt(ITEM_COUNT);
+    }
+
+    private interface Operation {
+        void run(ThreadLocalRandom random);
+    }
+
+    private Thread writer(String path, Operation operation, Map<String, Recorder> recorders,
+                          long deadline, AtomicReference<Throwable> failure) {
+        Recorder recorder = recorders.computeIfAbsent(path, key -> new Recorder());
+        return new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            try {
+                while (System.nanoTime() < deadline && failure.get() == null) {
+                    long start = System.nanoTime();
+                    operation.run(random);
+                    recorder.record(System.nanoTime() - start);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }, path);
+    }
+
+    // Latency samples for one path, shared by its writer threads
+    private static class Recorder {
+        private long[] samples = new long[1024];
+        private int count;
+
+        synchronized void record(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized double percentileMs(double percentile) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return percentileMs(sorted, percentile);
+        }
+
+        synchronized String report(String path, int seconds) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return String.format(Locale.US, "%-13s %8d ops %9.1f ops/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms",
+                    path, count, count / (double) seconds,
+                    percentileMs(sorted, 0.50), percentileMs(sorted, 0.99),
+                    percentileMs(sorted, 0.999), percentileMs(sorted, 1.0));
+        }
+
+        private static double percentileMs(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}